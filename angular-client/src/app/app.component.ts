@@ -1,4 +1,4 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { PropertyListComponent } from './property-list/property-list.component';
@@ -10,7 +10,9 @@ import { AgentInfoComponent } from './agent-info/agent-info.component';
 import { PropertyDetailsComponent } from './property-details/property-details.component';
 import { Property } from './models/property.model';
 import { PropertyService } from './services/property.service';
+import { PropertyStoreService } from './services/property-store.service';
 import { AgentService } from './services/agent.service';
+import { Subscription } from 'rxjs';
 
 @Component({
   selector: 'app-root',
@@ -29,7 +31,7 @@ import { AgentService } from './services/agent.service';
   templateUrl: './app.component.html',
   styleUrls: ['./app.component.scss']
 })
-export class AppComponent implements OnInit {
+export class AppComponent implements OnInit, OnDestroy {
   title = 'angular-client';
   properties: Property[] = [];
   editingProperty: Property | null = null;
@@ -43,23 +45,32 @@ export class AppComponent implements OnInit {
   showPropertyDetails = false;
   isLoading = false;
   errorMessage = '';
+  private storeSubscription?: Subscription;
   
   constructor(
     private propertyService: PropertyService,
+    private propertyStore: PropertyStoreService,
     private agentService: AgentService
   ) {}
   
   ngOnInit() {
+    // The store applies live changes from the backend in place, so the list is loaded only once
+    this.storeSubscription = this.propertyStore.properties$.subscribe(properties => {
+      this.properties = properties;
+    });
     this.loadPropertiesFromBackend();
   }
   
+  ngOnDestroy() {
+    this.storeSubscription?.unsubscribe();
+  }
+  
   loadPropertiesFromBackend() {
     this.isLoading = true;
     this.errorMessage = '';
     
-    this.propertyService.getProperties().subscribe({
+    this.propertyStore.load().subscribe({
       next: (properties) => {
-        this.properties = properties;
         if (properties.length === 0) {
           this.errorMessage = 'No properties found. Add a new property to get started.';
         }
@@ -159,8 +170,8 @@ export class AppComponent implements OnInit {
         property.id = createdProperty.id;
         console.log('AppComponent: Assigned ID to original property object:', property.id);
         
-        // Add the property to the array
-        this.properties = [...this.properties, createdProperty];
+        // Add the property to the list; the change stream delivers later image updates
+        this.propertyStore.upsert(createdProperty);
         
         // Notify the console that the property ID should now be available for image uploads
         console.log('AppComponent: Property ID is now available for image uploads:', property.id);
@@ -183,9 +194,6 @@ export class AppComponent implements OnInit {
           if (this.showForm) {
             this.showForm = false;
           }
-          
-          // After a longer delay, refresh the properties list to ensure we have the latest data
-          setTimeout(() => this.refreshProperties(), 5000);
         }, 15000); // Extended time for image uploads to complete (15 seconds)
       },
       error: (error) => {
@@ -206,9 +214,7 @@ export class AppComponent implements OnInit {
     this.propertyService.updateProperty(updated.id, updated).subscribe({
       next: (updatedProperty) => {
         // Replace the local entry with the one from the server
-        this.properties = this.properties.map(p => 
-          p.id === updatedProperty.id ? updatedProperty : p
-        );
+        this.propertyStore.upsert(updatedProperty);
         this.editingProperty = null;
         this.showForm = false;
       },
@@ -229,7 +235,7 @@ export class AppComponent implements OnInit {
     this.propertyService.deleteProperty(id).subscribe({
       next: () => {
         // Remove from the local list
-        this.properties = this.properties.filter(p => p.id !== id);
+        this.propertyStore.remove(id);
       },
       error: (error) => {
         console.error('Error deleting property:', error);
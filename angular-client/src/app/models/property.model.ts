@@ -7,6 +7,8 @@ export interface Agent {
 
 export interface Property {
   id: number;
+  // Optimistic-lock version from the backend; orders live updates of the same property
+  version?: number;
   title: string;
   description: string;
   price: number;
@@ -15,3 +17,18 @@ export interface Property {
   agent: Agent;
   imageUrls?: string[];
 }
+
+export interface PropertyPage {
+  content: Property[];
+  nextCursor: string | null;
+  hasNext: boolean;
+}
+
+export interface PropertyQuery {
+  type?: 'rent' | 'sale';
+  agentId?: number;
+  minPrice?: number;
+  maxPrice?: number;
+  location?: string;
+  keyword?: string;
+}
@@ -27,7 +27,8 @@ export class PropertyMapperService {
         }
         // Log the image URL to help debug
         console.log('PropertyMapper: Processing image URL:', img.imageUrl);
-        return img.imageUrl;
+        // Prefer the downscaled card variant; older images only have the original
+        return img.cardUrl || img.imageUrl;
       }).filter((url: string | null) => url !== null);
       
       console.log('PropertyMapper: Extracted image URLs:', imageUrls);
@@ -63,6 +64,7 @@ export class PropertyMapperService {
     // Map the property data
     return {
       id: backendProperty.id,
+      version: backendProperty.version,
       title: backendProperty.title,
       description: backendProperty.description,
       price: backendProperty.price,
@@ -86,7 +88,7 @@ export class PropertyMapperService {
    */
   async mapFrontendToBackendAsync(frontendProperty: Property): Promise<any> {
     // The backend doesn't expect imageUrls but separate image handling
-    const { imageUrls, ...propertyData } = frontendProperty;
+    const { imageUrls, version, ...propertyData } = frontendProperty;
     
     // Ensure agent has an ID or get/create one
     let agent = { ...propertyData.agent }; // Clone to avoid modifying original
@@ -134,7 +136,7 @@ export class PropertyMapperService {
    */
   mapFrontendToBackend(frontendProperty: Property): any {
     // The backend doesn't expect imageUrls but separate image handling
-    const { imageUrls, ...propertyData } = frontendProperty;
+    const { imageUrls, version, ...propertyData } = frontendProperty;
     
     // Ensure agent has an ID or it's properly structured
     let agent = propertyData.agent;
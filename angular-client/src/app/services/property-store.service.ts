@@ -0,0 +1,151 @@
+import { Inject, Injectable, NgZone, OnDestroy, PLATFORM_ID } from '@angular/core';
+import { isPlatformBrowser } from '@angular/common';
+import { BehaviorSubject, Observable, filter, of, switchMap, take, tap, timeout } from 'rxjs';
+import { Property } from '../models/property.model';
+import { PropertyService } from './property.service';
+import { PropertyMapperService } from './property-mapper.service';
+
+/**
+ * Client-side copy of the property list. It is loaded once and then kept current by the
+ * backend's change stream (Server-Sent Events at /api/changes/stream), which pushes each
+ * committed change so the list never has to be downloaded again.
+ */
+@Injectable({
+  providedIn: 'root'
+})
+export class PropertyStoreService implements OnDestroy {
+  private changesUrl = 'http://localhost:8081/api/changes/stream';
+  private reconnectDelayMs = 5000;
+  // How long a load waits for the change stream before fetching the list without it
+  private readyTimeoutMs = 5000;
+
+  private propertiesSubject = new BehaviorSubject<Property[]>([]);
+  readonly properties$: Observable<Property[]> = this.propertiesSubject.asObservable();
+
+  private eventSource?: EventSource;
+  // Set once the server has registered the stream (its `ready` event)
+  private streamReady = new BehaviorSubject<boolean>(false);
+  private reconnectTimer?: ReturnType<typeof setTimeout>;
+  // Offset of the last change applied, to resume after the stream was closed for good
+  private lastOffset?: string;
+  // Deletions seen while a load is in flight, so the older snapshot cannot bring them back
+  private deletedIds = new Set<number>();
+
+  constructor(
+    private propertyService: PropertyService,
+    private mapper: PropertyMapperService,
+    private zone: NgZone,
+    @Inject(PLATFORM_ID) private platformId: object
+  ) { }
+
+  /**
+   * Loads the first page of properties. The page is only requested once the change stream
+   * is registered on the server (EventSource connects asynchronously), so anything committed
+   * after the page was read arrives on the stream and is applied on top of it.
+   */
+  load(): Observable<Property[]> {
+    this.connect();
+    this.deletedIds.clear();
+    return this.whenStreamReady().pipe(
+      switchMap(() => this.propertyService.getProperties()),
+      tap(properties => properties.forEach(property => this.upsert(property)))
+    );
+  }
+
+  // Local writes are applied right away; the matching stream event is then a no-op
+  upsert(property: Property) {
+    if (this.deletedIds.has(property.id)) {
+      return;
+    }
+    const properties = this.propertiesSubject.value;
+    const index = properties.findIndex(p => p.id === property.id);
+    if (index === -1) {
+      this.propertiesSubject.next([...properties, property]);
+      return;
+    }
+    const current = properties[index];
+    if (current.version !== undefined && property.version !== undefined && property.version < current.version) {
+      return;
+    }
+    const updated = [...properties];
+    updated[index] = property;
+    this.propertiesSubject.next(updated);
+  }
+
+  remove(id: number) {
+    this.deletedIds.add(id);
+    const properties = this.propertiesSubject.value;
+    if (properties.some(p => p.id === id)) {
+      this.propertiesSubject.next(properties.filter(p => p.id !== id));
+    }
+  }
+
+  ngOnDestroy() {
+    clearTimeout(this.reconnectTimer);
+    this.eventSource?.close();
+  }
+
+  // Without a stream (server-side rendering, or none within readyTimeoutMs) the list is
+  // loaded anyway; it is then only as current as the snapshot until the stream connects
+  private whenStreamReady(): Observable<boolean> {
+    if (!this.eventSource) {
+      return of(false);
+    }
+    return this.streamReady.pipe(
+      filter(ready => ready),
+      take(1),
+      timeout({ first: this.readyTimeoutMs, with: () => of(false) })
+    );
+  }
+
+  private connect() {
+    // No EventSource during server-side rendering
+    if (!isPlatformBrowser(this.platformId) || typeof EventSource === 'undefined' || this.eventSource) {
+      return;
+    }
+    const url = this.lastOffset !== undefined ? `${this.changesUrl}?after=${this.lastOffset}` : this.changesUrl;
+    const eventSource = new EventSource(url);
+    eventSource.addEventListener('ready', event => {
+      this.track(event as MessageEvent);
+      this.streamReady.next(true);
+    });
+    eventSource.addEventListener('change', event => {
+      const message = event as MessageEvent;
+      this.track(message);
+      this.zone.run(() => this.apply(JSON.parse(message.data)));
+    });
+    // The browser reconnects by itself (resuming from the last event id) unless the
+    // stream failed outright; then start over from the last offset after a pause
+    eventSource.onerror = () => {
+      if (eventSource.readyState === EventSource.CLOSED) {
+        this.streamReady.next(false);
+        eventSource.close();
+        this.eventSource = undefined;
+        this.reconnectTimer = setTimeout(() => this.connect(), this.reconnectDelayMs);
+      }
+    };
+    this.eventSource = eventSource;
+  }
+
+  private track(event: MessageEvent) {
+    if (event.lastEventId) {
+      this.lastOffset = event.lastEventId;
+    }
+  }
+
+  private apply(change: any) {
+    if (change.entityType === 'PROPERTY') {
+      if (change.changeType === 'DELETED') {
+        this.remove(change.propertyId);
+      } else {
+        this.upsert(this.mapper.mapBackendToFrontend(change.payload));
+      }
+    } else if (change.entityType === 'IMAGE' && this.propertiesSubject.value.some(p => p.id === change.propertyId)) {
+      // Image changes only alter one property's image list; fetch just that property
+      this.propertyService.getPropertyById(change.propertyId).subscribe({
+        next: property => this.upsert(property),
+        error: error => console.error(`PropertyStore: Could not refresh property ${change.propertyId}:`, error)
+      });
+    }
+  }
+}
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpParams } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
 import { Observable, map, catchError } from 'rxjs';
-import { Property } from '../models/property.model';
+import { Property, PropertyPage, PropertyQuery } from '../models/property.model';
 import { PropertyMapperService } from './property-mapper.service';
 
 @Injectable({
@@ -15,12 +15,34 @@ export class PropertyService {
     private mapper: PropertyMapperService
   ) { }
 
-  getProperties(): Observable<Property[]> {
-    return this.http.get<any[]>(this.apiUrl).pipe(
-      map(backendProperties => this.mapper.mapPropertiesBackendToFrontend(backendProperties))
+  getProperties(cursor?: string, size?: number): Observable<Property[]> {
+    return this.getPropertyPage(this.apiUrl, this.pageParams(cursor, size)).pipe(
+      map(page => page.content)
     );
   }
 
+  // List endpoints are cursor-paginated; pass nextCursor back to read the following page
+  getPropertyPage(url: string, params: HttpParams): Observable<PropertyPage> {
+    return this.http.get<any>(url, { params }).pipe(
+      map(page => ({
+        content: this.mapper.mapPropertiesBackendToFrontend(page.content),
+        nextCursor: page.nextCursor,
+        hasNext: page.hasNext
+      }))
+    );
+  }
+
+  private pageParams(cursor?: string, size?: number): HttpParams {
+    let params = new HttpParams();
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
+    if (size !== undefined) {
+      params = params.set('size', size.toString());
+    }
+    return params;
+  }
+
   getPropertyById(id: number): Observable<Property> {
     return this.http.get<any>(`${this.apiUrl}/${id}`).pipe(
       map(backendProperty => this.mapper.mapBackendToFrontend(backendProperty))
@@ -90,26 +112,37 @@ export class PropertyService {
     return this.http.delete<void>(`${this.apiUrl}/${id}`);
   }
 
-  getPropertiesByType(type: string): Observable<Property[]> {
-    return this.http.get<any[]>(`${this.apiUrl}/type/${type}`).pipe(
-      map(properties => this.mapper.mapPropertiesBackendToFrontend(properties))
+  getPropertiesByType(type: string, cursor?: string, size?: number): Observable<Property[]> {
+    return this.getPropertyPage(`${this.apiUrl}/type/${type}`, this.pageParams(cursor, size)).pipe(
+      map(page => page.content)
     );
   }
 
-  searchProperties(keyword: string): Observable<Property[]> {
-    const params = new HttpParams().set('keyword', keyword);
-    return this.http.get<any[]>(`${this.apiUrl}/search`, { params }).pipe(
-      map(properties => this.mapper.mapPropertiesBackendToFrontend(properties))
+  searchProperties(keyword: string, cursor?: string, size?: number): Observable<Property[]> {
+    const params = this.pageParams(cursor, size).set('keyword', keyword);
+    return this.getPropertyPage(`${this.apiUrl}/search`, params).pipe(
+      map(page => page.content)
     );
   }
 
-  getPropertiesByMaxPrice(maxPrice: number): Observable<Property[]> {
-    const params = new HttpParams().set('maxPrice', maxPrice.toString());
-    return this.http.get<any[]>(`${this.apiUrl}/price`, { params }).pipe(
-      map(properties => this.mapper.mapPropertiesBackendToFrontend(properties))
+  getPropertiesByMaxPrice(maxPrice: number, cursor?: string, size?: number): Observable<Property[]> {
+    const params = this.pageParams(cursor, size).set('maxPrice', maxPrice.toString());
+    return this.getPropertyPage(`${this.apiUrl}/price`, params).pipe(
+      map(page => page.content)
     );
   }
 
+  // Combined server-side filtering; replaces fetching separate lists and merging them here
+  queryProperties(criteria: PropertyQuery, cursor?: string, size?: number): Observable<PropertyPage> {
+    let params = this.pageParams(cursor, size);
+    Object.entries(criteria).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        params = params.set(key, value.toString());
+      }
+    });
+    return this.getPropertyPage(`${this.apiUrl}/query`, params);
+  }
+
   // Upload property image
   uploadPropertyImage(
     propertyId: number, 
@@ -119,15 +152,15 @@ export class PropertyService {
   ): Observable<any> {
     console.log(`PropertyService: Starting upload for property ID ${propertyId}`);
     
-    const formData = new FormData();
-    formData.append('file', file);
+    // Send the file as the raw request body so the backend can stream it to disk
+    let params = new HttpParams().set('fileName', file.name);
     
     if (description) {
-      formData.append('description', description);
+      params = params.set('description', description);
     }
     
     if (displayOrder !== undefined) {
-      formData.append('displayOrder', displayOrder.toString());
+      params = params.set('displayOrder', displayOrder.toString());
     }
     
     // Log the upload details
@@ -135,7 +168,9 @@ export class PropertyService {
     console.log(`PropertyService: Upload endpoint: ${this.apiUrl}/${propertyId}/images`);
     
     // Return an observable that includes error handling and logging with a timeout
-    return this.http.post<any>(`${this.apiUrl}/${propertyId}/images`, formData, {
+    return this.http.post<any>(`${this.apiUrl}/${propertyId}/images`, file, {
+      params,
+      headers: new HttpHeaders({ 'Content-Type': file.type }),
       // Increase timeout for large files
       // NOTE: This requires HttpClientModule config with timeoutAll, not included here
       // but can be added if needed
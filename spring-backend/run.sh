@@ -2,18 +2,18 @@
 
 echo "Building and running MazLogic Properties Spring Boot backend..."
 
-# Check Java version and set JAVA_HOME to Java 17
-JAVA17_HOME=$(/usr/libexec/java_home -v 17 2>/dev/null)
-if [ -z "$JAVA17_HOME" ]; then
-  echo "Error: Java 17 is required but not found on your system."
-  echo "Please install Java 17 using Homebrew:"
-  echo "brew install openjdk@17"
+# Check Java version and set JAVA_HOME to Java 21
+JAVA21_HOME=$(/usr/libexec/java_home -v 21 2>/dev/null)
+if [ -z "$JAVA21_HOME" ]; then
+  echo "Error: Java 21 is required but not found on your system."
+  echo "Please install Java 21 using Homebrew:"
+  echo "brew install openjdk@21"
   echo "Then add it to your path or try running this script again."
   exit 1
 fi
 
-echo "Using Java 17 at: $JAVA17_HOME"
-export JAVA_HOME=$JAVA17_HOME
+echo "Using Java 21 at: $JAVA21_HOME"
+export JAVA_HOME=$JAVA21_HOME
 export PATH=$JAVA_HOME/bin:$PATH
 
 # Check PostgreSQL connection and create database if needed
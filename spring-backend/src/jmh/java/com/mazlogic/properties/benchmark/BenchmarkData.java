@@ -0,0 +1,192 @@
+package com.mazlogic.properties.benchmark;
+
+import com.mazlogic.properties.PropertyManagementApplication;
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.ImageStatus;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.PropertyImage;
+import com.mazlogic.properties.search.PropertySearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Application context and data for the benchmarks: the full application on an in-memory H2
+ * database (PostgreSQL mode, as in the tests), seeded with generated agents, properties and
+ * images. Generation is seeded, so every run sees the same data.
+ */
+public final class BenchmarkData {
+
+    public static final String[] TYPES = {"rent", "sale"};
+    public static final String[] LOCATIONS = {"Cape Town", "Johannesburg", "Durban", "Pretoria", "Stellenbosch", "Knysna"};
+    public static final String[] FEATURES = {"garden", "pool", "garage", "sea view", "fireplace", "balcony", "study", "solar"};
+
+    private static final int AGENT_COUNT = 50;
+    private static final int FLUSH_SIZE = 500;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Starts the application without a web server on a fresh in-memory database.
+     */
+    public static ConfigurableApplicationContext start() {
+        return start(new String[0]);
+    }
+
+    /**
+     * As {@link #start()}, with additional properties overriding the benchmark defaults.
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        Path imageDirectory;
+        try {
+            imageDirectory = Files.createTempDirectory("benchmark-images");
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not create the image directory", ex);
+        }
+        String database = "benchmark-" + System.nanoTime();
+        String options = "MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+        String url = "jdbc:h2:mem:" + database + ";" + options;
+        List<String> arguments = new ArrayList<>(List.of(
+                "spring.datasource.url=" + url,
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                // Read-only transactions go through a second pool, as they would to a replica
+                "application.datasource.replica.url=" + url,
+                "application.datasource.replica.username=sa",
+                "application.datasource.replica.password=",
+                "application.datasource.replica.driver-class-name=org.h2.Driver",
+                // R2DBC takes its credentials from spring.datasource
+                "spring.r2dbc.url=r2dbc:h2:mem:///" + database + "?options=" + options,
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                // No drop on close: the in-memory database is shut down with the R2DBC pool first
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.sql.init.mode=never",
+                "application.storage.backend=local",
+                "application.storage.image-directory=" + imageDirectory,
+                "application.search.index-directory=",
+                "logging.level.root=WARN"));
+        arguments.addAll(List.of(properties));
+        // As command line arguments, so they take precedence over any application.yml on the
+        // classpath (the benchmarks also see the test resources)
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PropertyManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.stream().map(argument -> "--" + argument).toArray(String[]::new));
+        requireDatabase(context, database);
+        return context;
+    }
+
+    /*
+     * Refuses to benchmark any database but the fresh one. When the test resources' settings
+     * won, the benchmarks measured the shared test database, so their results were not
+     * comparable between runs.
+     */
+    private static void requireDatabase(ConfigurableApplicationContext context, String database) {
+        String url;
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            url = connection.getMetaData().getURL();
+        } catch (SQLException ex) {
+            context.close();
+            throw new IllegalStateException("Could not check the benchmark database", ex);
+        }
+        if (url == null || !url.contains(database)) {
+            context.close();
+            throw new IllegalStateException("Benchmark context is connected to " + url + " instead of " + database);
+        }
+    }
+
+    /**
+     * Inserts the given number of properties (spread over the agents) with
+     * {@code imagesPerProperty} processed images each, then rebuilds the search index.
+     */
+    public static void seed(ConfigurableApplicationContext context, int propertyCount, int imagesPerProperty) {
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        Random random = new Random(42);
+
+        List<Agent> agents = transactionTemplate.execute(status -> {
+            List<Agent> created = new ArrayList<>();
+            for (int i = 0; i < AGENT_COUNT; i++) {
+                Agent agent = agent(i);
+                entityManager.persist(agent);
+                created.add(agent);
+            }
+            return created;
+        });
+
+        for (int start = 0; start < propertyCount; start += FLUSH_SIZE) {
+            int end = Math.min(start + FLUSH_SIZE, propertyCount);
+            int first = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < end; i++) {
+                    Agent agent = entityManager.getReference(Agent.class, agents.get(i % AGENT_COUNT).getId());
+                    entityManager.persist(property(i, agent, imagesPerProperty, random));
+                }
+            });
+        }
+        context.getBean(PropertySearchIndex.class).rebuild();
+    }
+
+    public static Agent agent(int index) {
+        Agent agent = new Agent();
+        agent.setName("Agent " + index);
+        agent.setEmail("agent" + index + "@mazlogic.com");
+        agent.setPhone("+27 21 555 " + String.format("%04d", index));
+        return agent;
+    }
+
+    /**
+     * An unsaved property with generated text and {@code imageCount} processed images.
+     */
+    public static Property property(int index, Agent agent, int imageCount, Random random) {
+        String feature = FEATURES[random.nextInt(FEATURES.length)];
+        String location = LOCATIONS[random.nextInt(LOCATIONS.length)];
+        Property property = new Property();
+        property.setTitle((random.nextInt(5) + 1) + " bedroom home with " + feature + " #" + index);
+        property.setDescription("Spacious home in " + location + " with " + feature + " and "
+                + FEATURES[random.nextInt(FEATURES.length)] + ", close to schools and shops.");
+        property.setPrice(500_000 + random.nextInt(9_500_000) * 1.0);
+        property.setType(TYPES[random.nextInt(TYPES.length)]);
+        property.setLocation(location);
+        property.setAgent(agent);
+        for (int i = 0; i < imageCount; i++) {
+            property.getImages().add(image(property, i, random));
+        }
+        return property;
+    }
+
+    private static PropertyImage image(Property property, int displayOrder, Random random) {
+        String digest = Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+        String fileName = digest.substring(0, 2) + "/" + digest.substring(2, 4) + "/" + digest + ".jpg";
+        PropertyImage image = new PropertyImage();
+        image.setProperty(property);
+        image.setFileName(fileName);
+        image.setImageUrl("http://localhost:8081/images/" + fileName);
+        image.setOriginalFileName("photo-" + displayOrder + ".jpg");
+        image.setContentType("image/jpeg");
+        image.setFileSize(250_000L + random.nextInt(2_000_000));
+        image.setDisplayOrder(displayOrder);
+        image.setStatus(ImageStatus.READY);
+        image.setWidth(1920);
+        image.setHeight(1280);
+        image.setThumbnailFileName(fileName.replace(".jpg", "-thumbnail.jpg"));
+        image.setCardFileName(fileName.replace(".jpg", "-card.jpg"));
+        image.setFullFileName(fileName.replace(".jpg", "-full.jpg"));
+        return image;
+    }
+}
@@ -0,0 +1,155 @@
+package com.mazlogic.properties.benchmark;
+
+import com.mazlogic.properties.service.FileStorageService;
+import com.mazlogic.properties.service.StoredFile;
+import com.mazlogic.properties.storage.LocalImageStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent uploads through FileStorageService.store, with the request body arriving in
+ * chunks the way a slow client sends it. "platform" runs them on a fixed pool the size of
+ * Tomcat's default (200 threads); "virtual" gives every upload its own virtual thread, which
+ * is what spring.threads.virtual.enabled does for request handling. Each operation is one
+ * batch of uploads, so the score is the time until the last of them is stored.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExecutionModeBenchmark {
+
+    private static final int PLATFORM_POOL_SIZE = 200;
+    private static final int FILE_SIZE = 64 * 1024;
+    private static final int CHUNKS = 8;
+    private static final long CHUNK_DELAY_MILLIS = 5;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"200", "1000", "4000"})
+    public int concurrentUploads;
+
+    private Path directory;
+    private FileStorageService fileStorageService;
+    private byte[] content;
+    private final AtomicLong sequence = new AtomicLong();
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("benchmark-execution-mode");
+        fileStorageService = new FileStorageService(new LocalImageStore(directory.toString()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fileStorageService, "maxUploadSize", DataSize.ofMegabytes(10));
+        content = new byte[FILE_SIZE];
+        new Random(42).nextBytes(content);
+    }
+
+    @Setup(Level.Iteration)
+    public void startExecutor() {
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopExecutor() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public int storeConcurrently() throws Exception {
+        List<Future<StoredFile>> uploads = new ArrayList<>(concurrentUploads);
+        for (int i = 0; i < concurrentUploads; i++) {
+            uploads.add(executor.submit(this::upload));
+        }
+        int stored = 0;
+        for (Future<StoredFile> upload : uploads) {
+            upload.get();
+            stored++;
+        }
+        return stored;
+    }
+
+    private StoredFile upload() {
+        // Distinct content per upload, so none of them is deduplicated
+        byte[] body = content.clone();
+        ByteBuffer.wrap(body).putLong(sequence.incrementAndGet());
+        StoredFile stored = fileStorageService.store(new SlowClientInputStream(body), "photo.jpg");
+        fileStorageService.deleteFile(stored.getFileName());
+        return stored;
+    }
+
+    /**
+     * Hands out the body in CHUNKS pieces and blocks before each one, like a servlet input
+     * stream waiting on the network.
+     */
+    private static class SlowClientInputStream extends InputStream {
+
+        private final ByteArrayInputStream body;
+        private final int chunkSize;
+
+        SlowClientInputStream(byte[] body) {
+            this.body = new ByteArrayInputStream(body);
+            this.chunkSize = body.length / CHUNKS;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (body.available() == 0) {
+                return -1;
+            }
+            try {
+                Thread.sleep(CHUNK_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Upload interrupted", e);
+            }
+            return body.read(buffer, offset, Math.min(length, chunkSize));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.mazlogic.properties.benchmark;
+
+import com.mazlogic.properties.service.FileStorageService;
+import com.mazlogic.properties.service.StoredFile;
+import com.mazlogic.properties.storage.LocalImageStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload throughput of FileStorageService.storeFile against the local store: hashing, copy
+ * to a temp file and the publishing rename. Every upload has distinct content, so none is
+ * deduplicated; each stored file is deleted again within the measured operation to keep
+ * disk usage flat.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FileStorageBenchmark {
+
+    @Param({"102400", "2097152"})
+    public int fileSize;
+
+    private Path directory;
+    private FileStorageService fileStorageService;
+    private byte[] content;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("benchmark-storage");
+        fileStorageService = new FileStorageService(new LocalImageStore(directory.toString()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fileStorageService, "maxUploadSize", DataSize.ofMegabytes(10));
+        content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public StoredFile storeFile() {
+        ByteBuffer.wrap(content).putLong(sequence++);
+        StoredFile stored = fileStorageService.storeFile(new MockMultipartFile("file", "photo.jpg", "image/jpeg", content));
+        fileStorageService.deleteFile(stored.getFileName());
+        return stored;
+    }
+}
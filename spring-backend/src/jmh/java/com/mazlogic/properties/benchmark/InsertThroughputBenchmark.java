@@ -0,0 +1,90 @@
+package com.mazlogic.properties.benchmark;
+
+import com.mazlogic.properties.model.Agent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts one transaction of {@code propertyCount} properties with {@code imagesPerProperty}
+ * images each, as a bulk import or an image-heavy create does. {@code ids=sequence} is the
+ * application's mapping: pooled-lo sequence ids and ordered JDBC batches of 50.
+ * {@code ids=identity} maps the same entities to IDENTITY columns (benchmark/identity-ids-orm.xml),
+ * which forces one INSERT round trip per row and disables batching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class InsertThroughputBenchmark {
+
+    private static final int AGENT_COUNT = 10;
+
+    @Param({"sequence", "identity"})
+    public String ids;
+
+    @Param({"100"})
+    public int propertyCount;
+
+    @Param({"3"})
+    public int imagesPerProperty;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private Long[] agentIds;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        context = "identity".equals(ids)
+                ? BenchmarkData.start("spring.jpa.mapping-resources=benchmark/identity-ids-orm.xml")
+                : BenchmarkData.start();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        agentIds = transactionTemplate.execute(status -> {
+            Long[] created = new Long[AGENT_COUNT];
+            for (int i = 0; i < AGENT_COUNT; i++) {
+                Agent agent = BenchmarkData.agent(i);
+                entityManager.persist(agent);
+                created[i] = agent.getId();
+            }
+            return created;
+        });
+        random = new Random(42);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void insertPropertiesWithImages() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < propertyCount; i++) {
+                Agent agent = entityManager.getReference(Agent.class, agentIds[i % AGENT_COUNT]);
+                entityManager.persist(BenchmarkData.property(i, agent, imagesPerProperty, random));
+            }
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.mazlogic.properties.benchmark;
+
+import com.mazlogic.properties.model.dto.PageResponse;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.model.dto.PropertySummaryDTO;
+import com.mazlogic.properties.repository.PropertyFilter;
+import com.mazlogic.properties.service.PropertyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query paths of the property list and search endpoints through PropertyService (with its
+ * transactions, SQL and search index), against a database seeded with {@code propertyCount}
+ * properties of three images each. Each call fetches one page of 20.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class PropertyQueryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000"})
+    public int propertyCount;
+
+    private ConfigurableApplicationContext context;
+    private PropertyService propertyService;
+    private String secondPageCursor;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.start();
+        BenchmarkData.seed(context, propertyCount, 3);
+        propertyService = context.getBean(PropertyService.class);
+        secondPageCursor = propertyService.getAllProperties(null, PAGE_SIZE, null).getNextCursor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageResponse<PropertyDTO> firstPage() {
+        return propertyService.getAllProperties(null, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public PageResponse<PropertyDTO> nextPage() {
+        return propertyService.getAllProperties(secondPageCursor, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public PageResponse<PropertyDTO> keywordSearch() {
+        return propertyService.searchProperties("garden", null, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public PageResponse<PropertyDTO> structuredFilter() {
+        PropertyFilter filter = new PropertyFilter("sale", null, 1_000_000.0, 5_000_000.0, null, null);
+        return propertyService.queryProperties(filter, null, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public PageResponse<PropertySummaryDTO> locationAndKeywordSummaries() {
+        PropertyFilter filter = new PropertyFilter(null, null, null, null, "Cape Town", "pool");
+        return propertyService.getPropertySummaries(filter, null, PAGE_SIZE, null);
+    }
+}
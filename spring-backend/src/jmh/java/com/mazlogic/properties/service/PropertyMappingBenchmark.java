@@ -0,0 +1,58 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.benchmark.BenchmarkData;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping of a single property by image count, through the shared
+ * {@link PropertyMapper}, which has no proxies, so only the mapping itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropertyMappingBenchmark {
+
+    @Param({"0", "5", "20", "100"})
+    public int imageCount;
+
+    private ConfigurableApplicationContext context;
+    private PropertyMapper propertyMapper;
+    private Property property;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.start();
+        propertyMapper = context.getBean(PropertyMapper.class);
+        property = BenchmarkData.property(1, BenchmarkData.agent(1), imageCount, new Random(42));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PropertyDTO convertToDTO() {
+        return propertyMapper.toDTO(property);
+    }
+}
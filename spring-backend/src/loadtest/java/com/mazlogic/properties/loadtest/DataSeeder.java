@@ -0,0 +1,253 @@
+package com.mazlogic.properties.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Seeds the target application through its public API, so the same data can be loaded into
+ * PostgreSQL or the embedded stand-in: agents one by one, properties through the bulk NDJSON
+ * import, and images through the streaming upload. The content is generated from a fixed
+ * random seed.
+ */
+public class DataSeeder {
+
+    static final String[] TYPES = {"rent", "sale"};
+    static final String[] LOCATIONS = {"Cape Town", "Johannesburg", "Durban", "Pretoria", "Stellenbosch", "Knysna"};
+    static final String[] FEATURES = {"garden", "pool", "garage", "sea view", "fireplace", "balcony", "study", "solar"};
+
+    private static final int IMPORT_CHUNK_SIZE = 5000;
+    private static final int UPLOAD_THREADS = 8;
+    private static final int DISTINCT_IMAGES = 20;
+    private static final int MAX_UPLOAD_ATTEMPTS = 3;
+
+    private final LoadTestConfig config;
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    DataSeeder(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    void seed() {
+        Random random = new Random(config.randomSeed);
+        long started = System.nanoTime();
+        List<Long> agentIds = seedAgents();
+        seedProperties(agentIds, random);
+        List<Long> propertyIds = propertyIds();
+        seedImages(propertyIds, random);
+        System.out.printf("Seeded %d agents, %d properties and %d images in %d s%n", agentIds.size(),
+                config.properties, config.images, (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    /**
+     * Ids of all properties in the target, read from the NDJSON export.
+     */
+    List<Long> propertyIds() {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/properties/export?format=ndjson")).GET().build();
+        HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+        List<Long> ids = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    ids.add(objectMapper.readTree(line).get("id").asLong());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("The target has no properties; run with loadtest.seed=true");
+        }
+        return ids;
+    }
+
+    /**
+     * Distinct generated JPEGs of a few tens of kilobytes, for the seeded and uploaded images.
+     */
+    static List<byte[]> sampleImages(long seed) {
+        Random random = new Random(seed);
+        List<byte[]> images = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_IMAGES; i++) {
+            BufferedImage image = new BufferedImage(1024, 768, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setPaint(new GradientPaint(0, 0, new Color(random.nextInt(0xffffff)),
+                    1024, 768, new Color(random.nextInt(0xffffff))));
+            graphics.fillRect(0, 0, 1024, 768);
+            for (int j = 0; j < 40; j++) {
+                graphics.setColor(new Color(random.nextInt(0xffffff)));
+                graphics.fillOval(random.nextInt(1024), random.nextInt(768), 20 + random.nextInt(200), 20 + random.nextInt(200));
+            }
+            graphics.dispose();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                ImageIO.write(image, "jpg", out);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            images.add(out.toByteArray());
+        }
+        return images;
+    }
+
+    // Run-specific e-mail addresses keep repeated seeding clear of the unique constraint
+    private List<Long> seedAgents() {
+        long run = System.currentTimeMillis();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < config.agents; i++) {
+            Map<String, Object> agent = Map.of(
+                    "name", "Load Agent " + i,
+                    "email", "load-" + run + "-" + i + "@mazlogic.com",
+                    "phone", "+27 21 555 " + String.format("%04d", i));
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/agents"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json(agent)))
+                    .build();
+            ids.add(readTree(send(request, HttpResponse.BodyHandlers.ofString()).body()).get("id").asLong());
+        }
+        return ids;
+    }
+
+    private void seedProperties(List<Long> agentIds, Random random) {
+        for (int start = 0; start < config.properties; start += IMPORT_CHUNK_SIZE) {
+            StringBuilder body = new StringBuilder();
+            for (int i = start; i < Math.min(start + IMPORT_CHUNK_SIZE, config.properties); i++) {
+                body.append(json(property(i, agentIds.get(i % agentIds.size()), random))).append('\n');
+            }
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/properties/import"))
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            JsonNode report = readTree(send(request, HttpResponse.BodyHandlers.ofString()).body());
+            if (report.path("failed").asInt() > 0) {
+                throw new IllegalStateException("Import rejected rows: " + report);
+            }
+        }
+    }
+
+    // Uploads bump the property's version, so concurrent uploads go to different properties
+    private void seedImages(List<Long> propertyIds, Random random) {
+        List<byte[]> images = sampleImages(config.randomSeed);
+        List<Long> targets = new ArrayList<>(propertyIds);
+        Collections.shuffle(targets, random);
+        ExecutorService executor = Executors.newFixedThreadPool(UPLOAD_THREADS);
+        try {
+            List<Future<?>> uploads = new ArrayList<>();
+            for (int i = 0; i < config.images; i++) {
+                long propertyId = targets.get(i % targets.size());
+                byte[] image = images.get(i % images.size());
+                int displayOrder = i;
+                uploads.add(executor.submit(() -> upload(propertyId, image, displayOrder)));
+            }
+            for (Future<?> upload : uploads) {
+                upload.get();
+            }
+        } catch (Exception ex) {
+            throw new IllegalStateException("Image seeding failed", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void upload(long propertyId, byte[] image, int displayOrder) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        uri("/api/properties/" + propertyId + "/images?fileName=seed.jpg&displayOrder=" + displayOrder))
+                .header("Content-Type", "image/jpeg")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(image))
+                .build();
+        // 409: the property was changed concurrently (e.g. by background image processing)
+        for (int attempt = 1; ; attempt++) {
+            try {
+                send(request, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (ConflictException ex) {
+                if (attempt == MAX_UPLOAD_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private static Map<String, Object> property(int index, long agentId, Random random) {
+        String feature = FEATURES[random.nextInt(FEATURES.length)];
+        String location = LOCATIONS[random.nextInt(LOCATIONS.length)];
+        return Map.of(
+                "title", (random.nextInt(5) + 1) + " bedroom home with " + feature + " #" + index,
+                "description", "Spacious home in " + location + " with " + feature + " and "
+                        + FEATURES[random.nextInt(FEATURES.length)] + ", close to schools and shops.",
+                "price", 500_000 + random.nextInt(9_500_000),
+                "type", TYPES[random.nextInt(TYPES.length)],
+                "location", location,
+                "agentId", agentId);
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        try {
+            HttpResponse<T> response = client.send(request, bodyHandler);
+            if (response.statusCode() == 409) {
+                throw new ConflictException(request.method() + " " + request.uri() + " conflicted");
+            }
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException(request.method() + " " + request.uri() + " returned " + response.statusCode());
+            }
+            return response;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not reach " + config.baseUrl, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(config.baseUrl + path);
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static class ConflictException extends IllegalStateException {
+
+        ConflictException(String message) {
+            super(message);
+        }
+    }
+}
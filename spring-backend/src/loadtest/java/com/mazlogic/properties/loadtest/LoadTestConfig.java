@@ -0,0 +1,60 @@
+package com.mazlogic.properties.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Load test settings, read from {@code -Dloadtest.*} system properties.
+ */
+public class LoadTestConfig {
+
+    final String baseUrl = string("baseUrl", "http://localhost:8081");
+
+    // Seeding; skip it (loadtest.seed=false) to rerun against an already seeded database
+    final boolean seed = Boolean.parseBoolean(string("seed", "true"));
+    final int agents = integer("agents", 50);
+    final int properties = integer("properties", 10000);
+    final int images = integer("images", 500);
+    final long randomSeed = integer("randomSeed", 42);
+
+    // Workload: users arrive over the ramp-up and keep issuing requests until the end
+    final int users = integer("users", 500);
+    final Duration rampUp = Duration.ofSeconds(integer("rampUpSeconds", 60));
+    final Duration duration = Duration.ofSeconds(integer("durationSeconds", 300));
+    final Duration minThinkTime = Duration.ofMillis(integer("minThinkTimeMs", 500));
+    final Duration maxThinkTime = Duration.ofMillis(integer("maxThinkTimeMs", 1500));
+
+    // Request mix in percent of requests; must add up to 100
+    final double listPercent = decimal("mix.list", 35);
+    final double detailPercent = decimal("mix.detail", 25);
+    final double searchPercent = decimal("mix.search", 20);
+    final double filterPercent = decimal("mix.filter", 15);
+    final double uploadPercent = decimal("mix.upload", 5);
+
+    // Latency SLOs, checked as assertions at the end of the run
+    final int readP95Millis = integer("slo.readP95Ms", 250);
+    final int readP99Millis = integer("slo.readP99Ms", 1000);
+    final int uploadP95Millis = integer("slo.uploadP95Ms", 2000);
+    final double maxErrorPercent = decimal("slo.maxErrorPercent", 1);
+
+    static LoadTestConfig fromSystemProperties() {
+        LoadTestConfig config = new LoadTestConfig();
+        double total = config.listPercent + config.detailPercent + config.searchPercent
+                + config.filterPercent + config.uploadPercent;
+        if (Math.abs(total - 100) > 0.001) {
+            throw new IllegalArgumentException("loadtest.mix.* must add up to 100, not " + total);
+        }
+        return config;
+    }
+
+    private static String string(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private static int integer(String name, int defaultValue) {
+        return Integer.parseInt(string(name, String.valueOf(defaultValue)));
+    }
+
+    private static double decimal(String name, double defaultValue) {
+        return Double.parseDouble(string(name, String.valueOf(defaultValue)));
+    }
+}
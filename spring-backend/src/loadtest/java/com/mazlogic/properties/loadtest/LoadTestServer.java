@@ -0,0 +1,32 @@
+package com.mazlogic.properties.loadtest;
+
+import com.mazlogic.properties.PropertyManagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Embedded stand-in for load tests without PostgreSQL: the application on port 8081 with an
+ * in-memory H2 database (PostgreSQL mode) and a temporary image directory. Further
+ * {@code --name=value} arguments override application properties.
+ */
+public class LoadTestServer {
+
+    public static void main(String[] args) throws IOException {
+        new SpringApplicationBuilder(PropertyManagementApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.sql.init.mode=never",
+                        "server.port=8081",
+                        "application.storage.backend=local",
+                        "application.storage.image-directory=" + Files.createTempDirectory("loadtest-images"),
+                        "application.search.index-directory=")
+                .run(args);
+    }
+}
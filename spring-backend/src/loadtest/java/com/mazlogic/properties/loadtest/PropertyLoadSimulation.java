@@ -0,0 +1,121 @@
+package com.mazlogic.properties.loadtest;
+
+import io.gatling.javaapi.core.Assertion;
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.Choice;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.ByteArrayBody;
+import static io.gatling.javaapi.core.CoreDsl.details;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.rampUsers;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+/**
+ * Mixed browse/search/upload workload against a running backend (see LoadTestServer for an
+ * embedded one). Seeds the target first unless {@code loadtest.seed=false}. Gatling reports
+ * throughput and p50/p95/p99 latency per request name (list, detail, search, filter,
+ * upload) on the console and in target/gatling; the run fails when an SLO is missed.
+ */
+public class PropertyLoadSimulation extends Simulation {
+
+    private static final List<String> READS = List.of("list", "detail", "search", "filter");
+
+    private final LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+    private final Random random = new Random(config.randomSeed);
+
+    private final List<byte[]> images = DataSeeder.sampleImages(config.randomSeed + 1);
+
+    private final List<Long> propertyIds;
+
+    {
+        DataSeeder seeder = new DataSeeder(config);
+        if (config.seed) {
+            seeder.seed();
+        }
+        propertyIds = seeder.propertyIds();
+    }
+
+    private final Iterator<Map<String, Object>> feeder = Stream.generate(this::nextRequest).iterator();
+
+    // Each virtual user caches ETags like a browser, so reads may be answered with 304
+    private final HttpProtocolBuilder protocol = http
+            .baseUrl(config.baseUrl)
+            .acceptHeader("application/json");
+
+    private final ChainBuilder list = exec(http("list")
+            .get("/api/properties?size=20")
+            .check(status().in(200, 304)));
+
+    private final ChainBuilder detail = exec(http("detail")
+            .get("/api/properties/#{propertyId}")
+            .check(status().in(200, 304)));
+
+    private final ChainBuilder search = exec(http("search")
+            .get("/api/properties/search?size=20")
+            .queryParam("keyword", "#{keyword}")
+            .check(status().in(200, 304)));
+
+    private final ChainBuilder filter = exec(http("filter")
+            .get("/api/properties/query?size=20")
+            .queryParam("type", "#{type}")
+            .queryParam("location", "#{location}")
+            .queryParam("maxPrice", "#{maxPrice}")
+            .check(status().in(200, 304)));
+
+    private final ChainBuilder upload = exec(http("upload")
+            .post("/api/properties/#{propertyId}/images?fileName=load.jpg")
+            .header("Content-Type", "image/jpeg")
+            .body(ByteArrayBody(session -> images.get(session.getInt("image"))))
+            .check(status().is(201)));
+
+    private final ScenarioBuilder users = scenario("Mixed workload")
+            .during(config.rampUp.plus(config.duration)).on(
+                    exec(session -> session.setAll(feeder.next()))
+                            .randomSwitch().on(
+                                    Choice.withWeight(config.listPercent, list),
+                                    Choice.withWeight(config.detailPercent, detail),
+                                    Choice.withWeight(config.searchPercent, search),
+                                    Choice.withWeight(config.filterPercent, filter),
+                                    Choice.withWeight(config.uploadPercent, upload))
+                            .pause(config.minThinkTime, config.maxThinkTime));
+
+    {
+        List<Assertion> slos = new ArrayList<>();
+        slos.add(global().failedRequests().percent().lt(config.maxErrorPercent));
+        for (String read : READS) {
+            slos.add(details(read).responseTime().percentile(95.0).lt(config.readP95Millis));
+            slos.add(details(read).responseTime().percentile(99.0).lt(config.readP99Millis));
+        }
+        slos.add(details("upload").responseTime().percentile(95.0).lt(config.uploadP95Millis));
+
+        setUp(users.injectOpen(rampUsers(config.users).during(config.rampUp)))
+                .protocols(protocol)
+                .assertions(slos);
+    }
+
+    private synchronized Map<String, Object> nextRequest() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("propertyId", propertyIds.get(random.nextInt(propertyIds.size())));
+        values.put("keyword", DataSeeder.FEATURES[random.nextInt(DataSeeder.FEATURES.length)].split(" ")[0]);
+        values.put("type", DataSeeder.TYPES[random.nextInt(DataSeeder.TYPES.length)]);
+        values.put("location", DataSeeder.LOCATIONS[random.nextInt(DataSeeder.LOCATIONS.length)]);
+        values.put("maxPrice", 1_000_000 + random.nextInt(9_000_000));
+        values.put("image", random.nextInt(images.size()));
+        return values;
+    }
+}
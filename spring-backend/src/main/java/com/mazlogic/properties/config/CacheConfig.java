@@ -0,0 +1,37 @@
+package com.mazlogic.properties.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROPERTIES = "properties";
+    public static final String AGENTS = "agents";
+    public static final String AGENT_LIST = "agentList";
+
+    @Value("${application.cache.properties-spec:maximumSize=10000,expireAfterWrite=10m}")
+    private String propertiesSpec;
+
+    @Value("${application.cache.agents-spec:maximumSize=1000,expireAfterWrite=1h}")
+    private String agentsSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.registerCustomCache(PROPERTIES, Caffeine.from(propertiesSpec).recordStats().build());
+        caffeineCacheManager.registerCustomCache(AGENTS, Caffeine.from(agentsSpec).recordStats().build());
+        caffeineCacheManager.registerCustomCache(AGENT_LIST, Caffeine.from(agentsSpec).recordStats().build());
+
+        // Defer evictions until the surrounding transaction commits, so a concurrent read
+        // cannot re-cache the state that is about to be replaced
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
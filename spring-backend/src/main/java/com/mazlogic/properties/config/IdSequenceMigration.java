@@ -0,0 +1,154 @@
+package com.mazlogic.properties.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Moves the id columns of agents, properties, property_images and change_records onto database sequences,
+ * which Hibernate allocates from in blocks (pooled-lo) so inserts can be batched. Runs on the
+ * primary before Hibernate starts (see DataSourceConfig), in one transaction:
+ *
+ * - identity columns (created by IDENTITY mappings) lose their identity, and a new sequence
+ *   starts after the highest existing id
+ * - existing sequences (e.g. of bigserial columns) are kept; they are already past every id
+ * - every sequence increments by application.ids.allocation-size, which Hibernate adopts as
+ *   its allocation size (hibernate.id.sequence.increment_size_mismatch_strategy: fix)
+ * - the columns default to the sequence, so plain SQL inserts draw from it too
+ *
+ * Re-running it changes nothing. Tables that do not exist yet are left to Hibernate, and
+ * their sequences are created here so the configured increment applies from the start;
+ * their column defaults are set once Hibernate has created them (afterSingletonsInstantiated).
+ *
+ * change_records ids used to be the feed offsets. They move to the feed_offset column
+ * (see ChangeFeedSequencer), so consumers keep their positions.
+ */
+@Component
+public class IdSequenceMigration implements SmartInitializingSingleton {
+
+    /**
+     * Default of application.ids.allocation-size, and the allocationSize of the entities'
+     * sequence generators. Those only take constants, but Hibernate replaces them with the
+     * increment this migration gives the sequences (increment_size_mismatch_strategy: fix).
+     */
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    private static final List<String> TABLES = List.of("agents", "properties", "property_images", "change_records");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Ids per sequence round trip. Lowering it is only safe with no other instance running
+    @Value("${application.ids.allocation-size:" + DEFAULT_ALLOCATION_SIZE + "}")
+    private int allocationSize;
+
+    @Autowired
+    public IdSequenceMigration(@Qualifier("primaryDataSource") DataSource primaryDataSource) {
+        this.jdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(primaryDataSource));
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (allocationSize < 1) {
+            throw new IllegalArgumentException("application.ids.allocation-size must be positive");
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            String schema = currentSchema();
+            migrateFeedOffsets(schema);
+            for (String table : TABLES) {
+                migrate(schema, table, table + "_id_seq");
+            }
+        });
+    }
+
+    /**
+     * Sets the column defaults of the tables Hibernate has created since {@link #migrate()}
+     * (on a fresh database), and sets them again on the others, which changes nothing.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> {
+            String schema = currentSchema();
+            for (String table : TABLES) {
+                if (tableExists(schema, table)) {
+                    setDefault(table, table + "_id_seq");
+                }
+            }
+        });
+    }
+
+    private void migrate(String schema, String table, String sequence) {
+        List<String> identity = jdbcTemplate.queryForList(
+                "SELECT is_identity FROM information_schema.columns " +
+                "WHERE table_schema = ? AND table_name = ? AND column_name = 'id'",
+                String.class, schema, table);
+        boolean tableExists = !identity.isEmpty();
+
+        if (tableExists && "YES".equalsIgnoreCase(identity.get(0))) {
+            // Also drops the identity's own sequence, which PostgreSQL names like ours
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+            log.info("Dropped the identity of {}.id", table);
+        }
+
+        List<Long> increment = jdbcTemplate.queryForList(
+                "SELECT increment FROM information_schema.sequences " +
+                "WHERE sequence_schema = ? AND sequence_name = ?",
+                Long.class, schema, sequence);
+        if (increment.isEmpty()) {
+            long start = tableExists
+                    ? jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class) + 1
+                    : 1;
+            jdbcTemplate.execute("CREATE SEQUENCE " + sequence + " START WITH " + start + " INCREMENT BY " + allocationSize);
+            log.info("Created {} starting at {}, incrementing by {}", sequence, start, allocationSize);
+        } else if (increment.get(0) != allocationSize) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + allocationSize);
+            log.info("Changed the increment of {} from {} to {}", sequence, increment.get(0), allocationSize);
+        }
+
+        if (tableExists) {
+            setDefault(table, sequence);
+        }
+    }
+
+    private void setDefault(String table, String sequence) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+    }
+
+    private boolean tableExists(String schema, String table) {
+        return !jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.columns " +
+                "WHERE table_schema = ? AND table_name = ? AND column_name = 'id'",
+                String.class, schema, table).isEmpty();
+    }
+
+    private String currentSchema() {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getSchema());
+    }
+
+    private void migrateFeedOffsets(String schema) {
+        List<String> columns = jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.columns WHERE table_schema = ? AND table_name = 'change_records'",
+                String.class, schema);
+        if (columns.isEmpty() || columns.stream().anyMatch("feed_offset"::equalsIgnoreCase)) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE change_records ADD COLUMN feed_offset BIGINT");
+        int copied = jdbcTemplate.update("UPDATE change_records SET feed_offset = id");
+        log.info("Copied the offsets of {} change records to change_records.feed_offset", copied);
+    }
+}
@@ -0,0 +1,45 @@
+package com.mazlogic.properties.config;
+
+import com.mazlogic.properties.logging.MdcTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ImageProcessingConfig {
+
+    public static final String IMAGE_PROCESSING_EXECUTOR = "imageProcessingExecutor";
+
+    @Value("${application.images.processing.pool-size:2}")
+    private int poolSize;
+
+    @Value("${application.images.processing.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean(name = IMAGE_PROCESSING_EXECUTOR)
+    public ThreadPoolTaskExecutor imageProcessingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-processing-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        if (virtualThreads) {
+            // Same bounds and back-pressure, but the workers are virtual threads, so a job
+            // waiting on storage or the database does not hold a platform thread
+            executor.setThreadFactory(Thread.ofVirtual().name("image-processing-", 0).factory());
+        }
+        // Back-pressure: when the queue is full the job is rejected rather than run by the
+        // uploading request; the image stays PENDING until the sweep in ImageProcessingQueue
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // Unfinished images stay PENDING and are resubmitted on the next start
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
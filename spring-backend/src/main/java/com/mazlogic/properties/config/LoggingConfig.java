@@ -0,0 +1,41 @@
+package com.mazlogic.properties.config;
+
+import com.mazlogic.properties.logging.CorrelationIdFilter;
+import com.mazlogic.properties.logging.SampledSqlInspector;
+import com.mazlogic.properties.metrics.QueryCountInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Correlation ids and sampled SQL logging; the appenders are set up in logback-spring.xml.
+ */
+@Configuration
+public class LoggingConfig {
+
+    // Fraction of SQL statements logged when com.mazlogic.properties.sql is at DEBUG
+    @Value("${application.logging.sql-sample-rate:0.01}")
+    private double sqlSampleRate;
+
+    @Bean
+    public FilterRegistrationBean<CorrelationIdFilter> correlationIdFilter() {
+        FilterRegistrationBean<CorrelationIdFilter> registration = new FilterRegistrationBean<>(new CorrelationIdFilter());
+        // Ahead of everything else that may log, including the query count filter
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // Hibernate takes a single statement inspector, so the query counter and the SQL sampler share one
+    @Bean
+    public HibernatePropertiesCustomizer statementInspector() {
+        StatementInspector queryCounter = new QueryCountInspector();
+        StatementInspector sqlSampler = new SampledSqlInspector(sqlSampleRate);
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                (StatementInspector) sql -> sqlSampler.inspect(queryCounter.inspect(sql)));
+    }
+}
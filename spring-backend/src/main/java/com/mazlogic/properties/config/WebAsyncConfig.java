@@ -0,0 +1,60 @@
+package com.mazlogic.properties.config;
+
+import com.mazlogic.properties.logging.MdcTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Scheduling drives the heartbeats of open change streams (see ChangeFeedService)
+@Configuration
+@EnableScheduling
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    public static final String WEB_ASYNC_EXECUTOR = "webAsyncExecutor";
+
+    @Value("${application.web.async.pool-size:4}")
+    private int poolSize;
+
+    @Value("${application.web.async.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Runs streaming response bodies (e.g. the property export) and change feed deliveries
+    // off the request threads. Without it Spring MVC would fall back to a new thread per
+    // request, since the image processing executor stops Boot from creating its default one.
+    // With virtual threads each task gets its own; they are cheap enough not to be pooled, but
+    // are capped at as many tasks as the pool would take (running plus queued). Tasks beyond
+    // that are rejected, as by a full pool, rather than blocking the caller: callers include
+    // the executor's own tasks, which would then wait on each other.
+    @Bean(name = WEB_ASYNC_EXECUTOR)
+    public AsyncTaskExecutor webAsyncExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("web-async-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(poolSize + queueCapacity);
+            executor.setRejectTasksWhenLimitReached(true);
+            executor.setTaskDecorator(new MdcTaskDecorator());
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("web-async-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(webAsyncExecutor());
+    }
+}
@@ -2,17 +2,19 @@ package com.mazlogic.properties.controller;
 
 import com.mazlogic.properties.model.dto.AgentDTO;
 import com.mazlogic.properties.service.AgentService;
-import javax.validation.Valid;
+import com.mazlogic.properties.service.ETags;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/agents")
-@CrossOrigin(origins = "*") // Allow requests from Angular frontend
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:8081"}) // Allow requests from Angular frontend
 public class AgentController {
 
     private final AgentService agentService;
@@ -24,23 +26,30 @@ public class AgentController {
     
     @GetMapping
     public ResponseEntity<List<AgentDTO>> getAllAgents(
-            @RequestParam(name = "email", required = false) String email) {
+            @RequestParam(name = "email", required = false) String email,
+            WebRequest request) {
         
         if (email != null && !email.isBlank()) {
             // If email parameter is provided, filter by email
             List<AgentDTO> agents = agentService.findAgentsByEmail(email);
             return ResponseEntity.ok(agents);
         } else {
-            // Otherwise, return all agents
+            // Otherwise, return all agents, unless the client's copy is still current
+            if (request.checkNotModified(agentService.getAgentListETag())) {
+                return null;
+            }
             List<AgentDTO> agents = agentService.getAllAgents();
-            return ResponseEntity.ok(agents);
+            return ResponseEntity.ok().eTag(ETags.agentListFromDTOs(agents)).body(agents);
         }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<AgentDTO> getAgentById(@PathVariable Long id) {
+    public ResponseEntity<AgentDTO> getAgentById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(agentService.getAgentETag(id))) {
+            return null;
+        }
         AgentDTO agent = agentService.getAgentById(id);
-        return ResponseEntity.ok(agent);
+        return ResponseEntity.ok().eTag(ETags.agent(agent)).body(agent);
     }
     
     @PostMapping
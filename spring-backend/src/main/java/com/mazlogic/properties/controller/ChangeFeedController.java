@@ -0,0 +1,60 @@
+package com.mazlogic.properties.controller;
+
+import com.mazlogic.properties.model.dto.ChangeFeedDTO;
+import com.mazlogic.properties.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/changes")
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:8081"})
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @Autowired
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * Property and image changes committed after offset {@code after}, oldest first. With
+     * {@code wait} (seconds) the request long-polls until a change commits or the wait
+     * elapses; continue from the returned {@code nextOffset}.
+     */
+    @GetMapping
+    public DeferredResult<ChangeFeedDTO> getChanges(
+            @RequestParam(value = "after", defaultValue = "0") long after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "wait", defaultValue = "0") long waitSeconds) {
+        if (after < 0 || waitSeconds < 0) {
+            throw new IllegalArgumentException("after and wait must not be negative");
+        }
+        return changeFeedService.pollChanges(after, limit, Duration.ofSeconds(waitSeconds));
+    }
+
+    /**
+     * Server-Sent Events stream of the same changes, pushed as they commit. Starts after
+     * {@code after}, or from now on; a reconnecting EventSource resumes from its Last-Event-ID.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        Long from = lastEventId != null ? lastEventId : after;
+        if (from != null && from < 0) {
+            throw new IllegalArgumentException("after must not be negative");
+        }
+        return changeFeedService.subscribe(from);
+    }
+}
@@ -1,52 +1,118 @@
 package com.mazlogic.properties.controller;
 
-import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.dto.ImportReportDTO;
+import com.mazlogic.properties.model.dto.PageResponse;
 import com.mazlogic.properties.model.dto.PropertyDTO;
 import com.mazlogic.properties.model.dto.PropertyImageDTO;
-import com.mazlogic.properties.repository.PropertyRepository;
+import com.mazlogic.properties.model.dto.PropertySummaryDTO;
+import com.mazlogic.properties.repository.PropertyFilter;
+import com.mazlogic.properties.service.ETags;
+import com.mazlogic.properties.service.FileStorageService;
+import com.mazlogic.properties.service.PropertyExportService;
 import com.mazlogic.properties.service.PropertyImageService;
+import com.mazlogic.properties.service.PropertyImportService;
 import com.mazlogic.properties.service.PropertyService;
-import javax.persistence.EntityNotFoundException;
-import javax.validation.Valid;
+import com.mazlogic.properties.service.StoredFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/properties")
 @CrossOrigin(origins = {"http://localhost:4200", "http://localhost:8081"}) // Allow requests from Angular frontend
 public class PropertyController {
 
+    private static final Logger log = LoggerFactory.getLogger(PropertyController.class);
+
     private final PropertyService propertyService;
     private final PropertyImageService imageService;
-    private final PropertyRepository propertyRepository;
+    private final FileStorageService fileStorageService;
+    private final PropertyImportService importService;
+    private final PropertyExportService exportService;
     
     @Autowired
     public PropertyController(
             PropertyService propertyService,
             PropertyImageService imageService,
-            PropertyRepository propertyRepository) {
+            FileStorageService fileStorageService,
+            PropertyImportService importService,
+            PropertyExportService exportService) {
         this.propertyService = propertyService;
         this.imageService = imageService;
-        this.propertyRepository = propertyRepository;
+        this.fileStorageService = fileStorageService;
+        this.importService = importService;
+        this.exportService = exportService;
     }
     
     @GetMapping
-    public ResponseEntity<List<PropertyDTO>> getAllProperties() {
-        List<PropertyDTO> properties = propertyService.getAllProperties();
-        return ResponseEntity.ok(properties);
+    public ResponseEntity<PageResponse<PropertyDTO>> getAllProperties(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort,
+            WebRequest request) {
+        return conditionalPage(request, PropertyFilter.none(), cursor, size, sort,
+                () -> propertyService.getAllProperties(cursor, size, sort));
+    }
+    
+    @GetMapping("/query")
+    public ResponseEntity<PageResponse<PropertyDTO>> queryProperties(
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "agentId", required = false) Long agentId,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "keyword", required = false) String keyword,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort,
+            WebRequest request) {
+        PropertyFilter filter = new PropertyFilter(type, agentId, minPrice, maxPrice, location, keyword);
+        return conditionalPage(request, filter, cursor, size, sort,
+                () -> propertyService.queryProperties(filter, cursor, size, sort));
+    }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<PageResponse<PropertySummaryDTO>> getPropertySummaries(
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "agentId", required = false) Long agentId,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "keyword", required = false) String keyword,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort) {
+        PropertyFilter filter = new PropertyFilter(type, agentId, minPrice, maxPrice, location, keyword);
+        PageResponse<PropertySummaryDTO> summaries = propertyService.getPropertySummaries(filter, cursor, size, sort);
+        return ResponseEntity.ok(summaries);
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<PropertyDTO> getPropertyById(@PathVariable Long id) {
+    public ResponseEntity<PropertyDTO> getPropertyById(@PathVariable Long id, WebRequest request) {
+        // A matching If-None-Match is answered from the version alone, without loading the property
+        if (request.checkNotModified(propertyService.getPropertyETag(id))) {
+            return null;
+        }
         PropertyDTO property = propertyService.getPropertyById(id);
-        return ResponseEntity.ok(property);
+        return ResponseEntity.ok().eTag(ETags.property(property)).body(property);
     }
     
     @PostMapping
@@ -55,6 +121,41 @@ public class PropertyController {
         return new ResponseEntity<>(createdProperty, HttpStatus.CREATED);
     }
     
+    /**
+     * Bulk import from an NDJSON or CSV body, parsed as it is received. Rows that fail
+     * validation or reference an unknown agent are reported without stopping the import.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ImportReportDTO> importProperties(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        ImportReportDTO report = importService.importProperties(
+                request.getInputStream(), MediaType.parseMediaType(contentType));
+        return ResponseEntity.ok(report);
+    }
+    
+    /**
+     * Streams every listing, or with {@code since} only those changed after that instant plus
+     * tombstones for those deleted, as NDJSON or CSV. The X-Export-Watermark header is the
+     * {@code since} for the next run.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProperties(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "since", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since) {
+        MediaType mediaType = exportService.mediaType(format);
+        exportService.checkSince(since);
+        Instant watermark = exportService.watermark();
+        StreamingResponseBody body = out -> exportService.export(since, mediaType, out);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("properties." + format.toLowerCase()).build().toString())
+                .header("X-Export-Watermark", watermark.toString())
+                .body(body);
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<PropertyDTO> updateProperty(
             @PathVariable Long id,
@@ -70,27 +171,64 @@ public class PropertyController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<PropertyDTO>> searchProperties(@RequestParam String keyword) {
-        List<PropertyDTO> properties = propertyService.searchProperties(keyword);
+    public ResponseEntity<PageResponse<PropertyDTO>> searchProperties(
+            @RequestParam String keyword,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort) {
+        PageResponse<PropertyDTO> properties = propertyService.searchProperties(keyword, cursor, size, sort);
         return ResponseEntity.ok(properties);
     }
     
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<PropertyDTO>> getPropertiesByType(@PathVariable String type) {
-        List<PropertyDTO> properties = propertyService.getPropertiesByType(type);
-        return ResponseEntity.ok(properties);
+    public ResponseEntity<PageResponse<PropertyDTO>> getPropertiesByType(
+            @PathVariable String type,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort,
+            WebRequest request) {
+        return conditionalPage(request, PropertyFilter.byType(type), cursor, size, sort,
+                () -> propertyService.getPropertiesByType(type, cursor, size, sort));
     }
     
     @GetMapping("/agent/{agentId}")
-    public ResponseEntity<List<PropertyDTO>> getPropertiesByAgentId(@PathVariable Long agentId) {
-        List<PropertyDTO> properties = propertyService.getPropertiesByAgentId(agentId);
-        return ResponseEntity.ok(properties);
+    public ResponseEntity<PageResponse<PropertyDTO>> getPropertiesByAgentId(
+            @PathVariable Long agentId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort,
+            WebRequest request) {
+        return conditionalPage(request, PropertyFilter.byAgentId(agentId), cursor, size, sort,
+                () -> propertyService.getPropertiesByAgentId(agentId, cursor, size, sort));
     }
     
     @GetMapping("/price")
-    public ResponseEntity<List<PropertyDTO>> getPropertiesByMaxPrice(@RequestParam Double maxPrice) {
-        List<PropertyDTO> properties = propertyService.getPropertiesByMaxPrice(maxPrice);
-        return ResponseEntity.ok(properties);
+    public ResponseEntity<PageResponse<PropertyDTO>> getPropertiesByMaxPrice(
+            @RequestParam Double maxPrice,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "sort", required = false) String sort,
+            WebRequest request) {
+        return conditionalPage(request, PropertyFilter.byMaxPrice(maxPrice), cursor, size, sort,
+                () -> propertyService.getPropertiesByMaxPrice(maxPrice, cursor, size, sort));
+    }
+    
+    /**
+     * Answers a list request conditionally: the page ETag is computed from row versions first,
+     * and the page is only loaded and rendered when the client's copy is out of date.
+     */
+    private ResponseEntity<PageResponse<PropertyDTO>> conditionalPage(
+            WebRequest request, PropertyFilter filter, String cursor, Integer size, String sort,
+            Supplier<PageResponse<PropertyDTO>> loader) {
+        String eTag = propertyService.getPageETag(filter, cursor, size, sort);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+        PageResponse<PropertyDTO> page = loader.get();
+        if (eTag == null) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok().eTag(ETags.propertyPage(page)).body(page);
     }
     
     // Image related endpoints
@@ -100,51 +238,45 @@ public class PropertyController {
         return ResponseEntity.ok(images);
     }
     
+    /**
+     * Multipart upload, as sent by the Angular client. Like {@link #streamPropertyImage}, the
+     * file is stored before the image is recorded, so no database connection is held while
+     * it is copied to storage.
+     */
     @PostMapping("/{propertyId}/images")
-    @Transactional
     public ResponseEntity<PropertyImageDTO> uploadPropertyImage(
             @PathVariable Long propertyId,
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "description", required = false) String description,
             @RequestParam(value = "displayOrder", required = false) Integer displayOrder) {
         
-        // Log start of image upload process
-        System.out.println("Received file upload request for property ID: " + propertyId);
-        System.out.println("File name: " + file.getOriginalFilename());
-        System.out.println("File size: " + file.getSize() + " bytes");
-        System.out.println("File content type: " + file.getContentType());
+        StoredFile storedFile = fileStorageService.storeFile(file);
+        PropertyImageDTO uploadedImage = imageService.addStoredImage(
+                propertyId, storedFile, file.getOriginalFilename(), file.getContentType(), description, displayOrder);
         
-        try {
-            // Verify property exists
-            Property property = propertyRepository.findById(propertyId)
-                    .orElseThrow(() -> new EntityNotFoundException("Property not found with ID: " + propertyId));
-            
-            // Check if property already has images
-            System.out.println("Property current image count: " + 
-                (property.getImages() != null ? property.getImages().size() : "null"));
-            
-            // Use Property's helper method to ensure proper bidirectional relationship
-            PropertyImageDTO uploadedImage = imageService.uploadImage(property, file, description, displayOrder);
-            
-            // Save the property again to ensure relationship is persisted
-            property = propertyRepository.save(property);
-            
-            // Log the result of the upload
-            System.out.println("Image saved with ID: " + uploadedImage.getId());
-            System.out.println("Image URL: " + uploadedImage.getImageUrl());
-            
-            // Verify images are associated with the property
-            Property updatedProperty = propertyRepository.findById(propertyId).orElseThrow();
-            System.out.println("Updated property image count: " + 
-                (updatedProperty.getImages() != null ? updatedProperty.getImages().size() : "null"));
-            
-            return new ResponseEntity<>(uploadedImage, HttpStatus.CREATED);
-        } catch (Exception e) {
-            // Improved error logging
-            System.err.println("Error processing image upload for property ID " + propertyId);
-            e.printStackTrace();
-            throw e; // Re-throw to let Spring handle the error response
-        }
+        log.debug("Stored image {} for property {} ({}, {} bytes)",
+                uploadedImage.getId(), propertyId, file.getContentType(), file.getSize());
+        return new ResponseEntity<>(uploadedImage, HttpStatus.CREATED);
+    }
+    
+    /**
+     * Streams a raw image body (e.g. {@code Content-Type: image/jpeg}) straight into storage,
+     * without multipart parsing or an intermediate temp file. No transaction or database
+     * connection is held while the body is being received.
+     */
+    @PostMapping(value = "/{propertyId}/images", consumes = "image/*")
+    public ResponseEntity<PropertyImageDTO> streamPropertyImage(
+            @PathVariable Long propertyId,
+            @RequestParam(value = "fileName", required = false) String fileName,
+            @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "displayOrder", required = false) Integer displayOrder,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        
+        StoredFile storedFile = fileStorageService.store(request.getInputStream(), fileName);
+        PropertyImageDTO uploadedImage = imageService.addStoredImage(
+                propertyId, storedFile, fileName, contentType, description, displayOrder);
+        return new ResponseEntity<>(uploadedImage, HttpStatus.CREATED);
     }
     
     @DeleteMapping("/images/{imageId}")
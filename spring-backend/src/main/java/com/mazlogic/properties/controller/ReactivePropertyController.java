@@ -0,0 +1,89 @@
+package com.mazlogic.properties.controller;
+
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.repository.PropertyFilter;
+import com.mazlogic.properties.service.ReactivePropertyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streaming variants of the property listing endpoints, selected with
+ * {@code Accept: application/x-ndjson}. Instead of a page, the response is every matching
+ * property as one JSON object per line, read over R2DBC as the client consumes it. A
+ * {@code nextCursor} from a page of the same sort starts the stream after that page.
+ * Other Accept headers keep getting the paginated JSON of {@link PropertyController}.
+ */
+@RestController
+@RequestMapping(value = "/api/properties", produces = MediaType.APPLICATION_NDJSON_VALUE)
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:8081"})
+@ConditionalOnProperty(name = "application.reactive.enabled", havingValue = "true")
+public class ReactivePropertyController {
+
+    private final ReactivePropertyService reactivePropertyService;
+
+    @Autowired
+    public ReactivePropertyController(ReactivePropertyService reactivePropertyService) {
+        this.reactivePropertyService = reactivePropertyService;
+    }
+
+    @GetMapping
+    public Flux<PropertyDTO> streamAllProperties(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", required = false) String sort) {
+        return reactivePropertyService.streamProperties(PropertyFilter.none(), cursor, sort);
+    }
+
+    @GetMapping("/query")
+    public Flux<PropertyDTO> streamQueriedProperties(
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "agentId", required = false) Long agentId,
+            @RequestParam(value = "minPrice", required = false) Double minPrice,
+            @RequestParam(value = "maxPrice", required = false) Double maxPrice,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "keyword", required = false) String keyword,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", required = false) String sort) {
+        PropertyFilter filter = new PropertyFilter(type, agentId, minPrice, maxPrice, location, keyword);
+        return reactivePropertyService.streamProperties(filter, cursor, sort);
+    }
+
+    @GetMapping("/search")
+    public Flux<PropertyDTO> streamSearchResults(
+            @RequestParam String keyword,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", required = false) String sort) {
+        return reactivePropertyService.streamProperties(PropertyFilter.byKeyword(keyword), cursor, sort);
+    }
+
+    @GetMapping("/type/{type}")
+    public Flux<PropertyDTO> streamPropertiesByType(
+            @PathVariable String type,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", required = false) String sort) {
+        return reactivePropertyService.streamProperties(PropertyFilter.byType(type), cursor, sort);
+    }
+
+    @GetMapping("/agent/{agentId}")
+    public Flux<PropertyDTO> streamPropertiesByAgentId(
+            @PathVariable Long agentId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", required = false) String sort) {
+        return reactivePropertyService.streamProperties(PropertyFilter.byAgentId(agentId), cursor, sort);
+    }
+
+    @GetMapping("/price")
+    public Flux<PropertyDTO> streamPropertiesByMaxPrice(
+            @RequestParam Double maxPrice,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", required = false) String sort) {
+        return reactivePropertyService.streamProperties(PropertyFilter.byMaxPrice(maxPrice), cursor, sort);
+    }
+}
@@ -1,17 +1,20 @@
 package com.mazlogic.properties.controller;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mazlogic.properties.model.dto.PageResponse;
+import com.mazlogic.properties.model.dto.StorageStatsDTO;
+import com.mazlogic.properties.service.FileStorageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.File;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -19,28 +22,54 @@ import java.util.Map;
 @CrossOrigin(origins = {"http://localhost:4200", "http://localhost:8081"})
 public class SystemController {
 
-    @Value("${application.storage.image-directory}")
-    private String uploadDirectory;
+    private final CacheManager cacheManager;
+    private final FileStorageService fileStorageService;
+    
+    @Autowired
+    public SystemController(CacheManager cacheManager, FileStorageService fileStorageService) {
+        this.cacheManager = cacheManager;
+        this.fileStorageService = fileStorageService;
+    }
 
+    /**
+     * Storage backend and estimated usage, extrapolated from {@code sampleShards} randomly
+     * chosen shards so the cost does not grow with the number of stored files.
+     */
     @GetMapping("/info")
-    public ResponseEntity<Map<String, Object>> getSystemInfo() {
-        Map<String, Object> info = new HashMap<>();
-        
-        // Get image directory info
-        Path uploadDir = Paths.get(uploadDirectory).toAbsolutePath().normalize();
-        File uploadDirFile = uploadDir.toFile();
-        
-        info.put("imageDirectory", uploadDir.toString());
-        info.put("directoryExists", uploadDirFile.exists());
-        info.put("directoryCanRead", uploadDirFile.canRead());
-        info.put("directoryCanWrite", uploadDirFile.canWrite());
+    public ResponseEntity<StorageStatsDTO> getSystemInfo(
+            @RequestParam(value = "sampleShards", defaultValue = "8") int sampleShards) {
+        return ResponseEntity.ok(fileStorageService.sampleStatistics(sampleShards));
+    }
+    
+    @GetMapping("/files")
+    public ResponseEntity<PageResponse<String>> getStoredFiles(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(fileStorageService.listFiles(cursor, size));
+    }
+    
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
         
-        // Get file listing if directory exists
-        if (uploadDirFile.exists() && uploadDirFile.isDirectory()) {
-            String[] files = uploadDirFile.list();
-            info.put("files", files != null ? Arrays.asList(files) : "No files found");
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache)) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache =
+                    (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+            CacheStats cacheStats = nativeCache.stats();
+            
+            Map<String, Object> cacheInfo = new LinkedHashMap<>();
+            cacheInfo.put("size", nativeCache.estimatedSize());
+            cacheInfo.put("hitCount", cacheStats.hitCount());
+            cacheInfo.put("missCount", cacheStats.missCount());
+            cacheInfo.put("hitRate", cacheStats.hitRate());
+            cacheInfo.put("evictionCount", cacheStats.evictionCount());
+            stats.put(cacheName, cacheInfo);
         }
         
-        return ResponseEntity.ok(info);
+        return ResponseEntity.ok(stats);
     }
 }
@@ -0,0 +1,40 @@
+package com.mazlogic.properties.event;
+
+import com.mazlogic.properties.event.PropertyChangedEvent.ChangeType;
+import com.mazlogic.properties.model.dto.PropertyImageDTO;
+
+/**
+ * Published by PropertyImageService inside the write transaction whenever an image is
+ * added, edited, finishes processing or is deleted.
+ */
+public class ImageChangedEvent {
+
+    private final ChangeType changeType;
+    private final Long imageId;
+    private final Long propertyId;
+    // State after the change; null for deletions
+    private final PropertyImageDTO image;
+
+    public ImageChangedEvent(ChangeType changeType, Long imageId, Long propertyId, PropertyImageDTO image) {
+        this.changeType = changeType;
+        this.imageId = imageId;
+        this.propertyId = propertyId;
+        this.image = image;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Long getImageId() {
+        return imageId;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public PropertyImageDTO getImage() {
+        return image;
+    }
+}
@@ -0,0 +1,27 @@
+package com.mazlogic.properties.event;
+
+import java.util.List;
+
+/**
+ * Published by PropertyImageService when an image row is deleted. Stored files are
+ * content-addressed and may be shared with other images, so they are only removed
+ * after commit, once no remaining image references them.
+ */
+public class ImageDeletedEvent {
+
+    private final String fileName;
+    private final List<String> variantFileNames;
+
+    public ImageDeletedEvent(String fileName, List<String> variantFileNames) {
+        this.fileName = fileName;
+        this.variantFileNames = variantFileNames;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public List<String> getVariantFileNames() {
+        return variantFileNames;
+    }
+}
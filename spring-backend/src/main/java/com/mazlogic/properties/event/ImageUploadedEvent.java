@@ -0,0 +1,18 @@
+package com.mazlogic.properties.event;
+
+/**
+ * Published by PropertyImageService inside the upload transaction. The image is only
+ * handed to the processing queue after commit, so workers always find the stored row.
+ */
+public class ImageUploadedEvent {
+
+    private final Long imageId;
+
+    public ImageUploadedEvent(Long imageId) {
+        this.imageId = imageId;
+    }
+
+    public Long getImageId() {
+        return imageId;
+    }
+}
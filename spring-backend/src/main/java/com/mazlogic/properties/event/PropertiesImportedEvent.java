@@ -0,0 +1,22 @@
+package com.mazlogic.properties.event;
+
+import com.mazlogic.properties.model.dto.PropertyDTO;
+
+import java.util.List;
+
+/**
+ * Published by PropertyService for each committed import batch, so listeners can apply
+ * the whole batch at once instead of handling one PropertyChangedEvent per row.
+ */
+public class PropertiesImportedEvent {
+
+    private final List<PropertyDTO> properties;
+
+    public PropertiesImportedEvent(List<PropertyDTO> properties) {
+        this.properties = properties;
+    }
+
+    public List<PropertyDTO> getProperties() {
+        return properties;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mazlogic.properties.event;
+
+import com.mazlogic.properties.model.dto.PropertyDTO;
+
+/**
+ * Published by PropertyService inside the write transaction. Listeners that keep
+ * derived state (such as the search index) should react after commit, so a rolled
+ * back write never leaks out.
+ */
+public class PropertyChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType changeType;
+    private final Long propertyId;
+    // State after the change; null for deletions
+    private final PropertyDTO property;
+
+    public PropertyChangedEvent(ChangeType changeType, Long propertyId, PropertyDTO property) {
+        this.changeType = changeType;
+        this.propertyId = propertyId;
+        this.property = property;
+    }
+
+    public static PropertyChangedEvent created(PropertyDTO property) {
+        return new PropertyChangedEvent(ChangeType.CREATED, property.getId(), property);
+    }
+
+    public static PropertyChangedEvent updated(PropertyDTO property) {
+        return new PropertyChangedEvent(ChangeType.UPDATED, property.getId(), property);
+    }
+
+    public static PropertyChangedEvent deleted(Long propertyId) {
+        return new PropertyChangedEvent(ChangeType.DELETED, propertyId, null);
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public PropertyDTO getProperty() {
+        return property;
+    }
+}
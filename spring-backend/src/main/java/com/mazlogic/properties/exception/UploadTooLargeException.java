@@ -0,0 +1,12 @@
+package com.mazlogic.properties.exception;
+
+/**
+ * An upload exceeds the maximum upload size. Handled as a bad request like any other
+ * invalid argument, but told apart so it can be counted on its own.
+ */
+public class UploadTooLargeException extends IllegalArgumentException {
+
+    public UploadTooLargeException(long maxSize) {
+        super("File exceeds the maximum upload size of " + maxSize + " bytes");
+    }
+}
@@ -0,0 +1,33 @@
+package com.mazlogic.properties.logging;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs a random sample of the SQL statements Hibernate prepares, at DEBUG on the
+ * {@code com.mazlogic.properties.sql} logger. Unlike {@code show-sql} this goes through the
+ * async appender with the request's correlation id, and costs one level check per statement
+ * when the logger is off. Statements are passed on unchanged.
+ */
+public class SampledSqlInspector implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger("com.mazlogic.properties.sql");
+
+    private final double sampleRate;
+
+    public SampledSqlInspector(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (sampleRate > 0 && log.isDebugEnabled()
+                && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            log.debug("{}", sql);
+        }
+        return sql;
+    }
+}
@@ -1,11 +1,13 @@
 package com.mazlogic.properties.model;
 
-import javax.persistence.*;
-import javax.validation.constraints.Email;
-import javax.validation.constraints.NotBlank;
+import com.mazlogic.properties.config.IdSequenceMigration;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,10 +18,18 @@ import java.util.List;
 @AllArgsConstructor
 public class Agent {
     
+    // Block-allocated sequence ids, so inserts can be batched (see IdSequenceMigration)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agent_id_seq")
+    @SequenceGenerator(name = "agent_id_seq", sequenceName = "agents_id_seq", allocationSize = IdSequenceMigration.DEFAULT_ALLOCATION_SIZE)
     private Long id;
     
+    // Optimistic-lock version; also the source of the HTTP ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
     @NotBlank(message = "Agent name is required")
     @Column(nullable = false)
     private String name;
@@ -56,6 +66,14 @@ public class Agent {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,29 @@
+package com.mazlogic.properties.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row counter of the last assigned change feed offset. Only ChangeFeedSequencer
+ * locks it, after the writes have committed, so writers never wait for one another here.
+ */
+@Entity
+@Table(name = "change_feed_head")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedHead {
+
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long lastOffset;
+}
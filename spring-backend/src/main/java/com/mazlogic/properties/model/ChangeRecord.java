@@ -0,0 +1,60 @@
+package com.mazlogic.properties.model;
+
+import com.mazlogic.properties.config.IdSequenceMigration;
+import com.mazlogic.properties.event.PropertyChangedEvent.ChangeType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One entry of the change feed (transactional outbox). Writers insert records without a
+ * feed offset; ChangeFeedSequencer numbers them once they have committed, so offsets follow
+ * commit order and a consumer that has read up to offset n never later finds a smaller one.
+ */
+@Entity
+@Table(name = "change_records", indexes = {
+        @Index(name = "idx_change_records_feed_offset", columnList = "feed_offset", unique = true),
+        @Index(name = "idx_change_records_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+public class ChangeRecord {
+
+    public enum EntityType {
+        PROPERTY,
+        IMAGE
+    }
+
+    // Block-allocated sequence ids, so inserts can be batched (see IdSequenceMigration)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_record_id_seq")
+    @SequenceGenerator(name = "change_record_id_seq", sequenceName = "change_records_id_seq", allocationSize = IdSequenceMigration.DEFAULT_ALLOCATION_SIZE)
+    private Long id;
+
+    // Position in the feed; null until the record is sequenced
+    @Column(name = "feed_offset")
+    private Long feedOffset;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EntityType entityType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeType changeType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Long propertyId;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // JSON of the entity after the change; null for deletions
+    @Column(columnDefinition = "text")
+    private String payload;
+}
@@ -0,0 +1,11 @@
+package com.mazlogic.properties.model;
+
+/**
+ * Processing state of an uploaded property image. The original is served in every
+ * state; variants become available once the image is READY.
+ */
+public enum ImageStatus {
+    PENDING,
+    READY,
+    FAILED
+}
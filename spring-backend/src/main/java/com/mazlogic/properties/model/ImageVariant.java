@@ -0,0 +1,27 @@
+package com.mazlogic.properties.model;
+
+/**
+ * Downscaled renditions generated for every uploaded property image.
+ * Sizes are the maximum length of the longest edge, in pixels.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumb", 320),
+    CARD("card", 800),
+    FULL("full", 1920);
+
+    private final String suffix;
+    private final int maxEdge;
+
+    ImageVariant(String suffix, int maxEdge) {
+        this.suffix = suffix;
+        this.maxEdge = maxEdge;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public int getMaxEdge() {
+        return maxEdge;
+    }
+}
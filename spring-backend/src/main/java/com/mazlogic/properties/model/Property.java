@@ -1,26 +1,53 @@
 package com.mazlogic.properties.model;
 
-import javax.persistence.*;
-import javax.validation.constraints.NotBlank;
-import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Positive;
+import com.mazlogic.properties.config.IdSequenceMigration;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "properties")
+@Table(name = "properties", indexes = {
+        // Composite indexes backing the keyset-paginated filters (see PropertyRepositoryImpl)
+        @Index(name = "idx_properties_type_price", columnList = "type, price, id"),
+        @Index(name = "idx_properties_type_id", columnList = "type, id"),
+        @Index(name = "idx_properties_agent_price", columnList = "agent_id, price, id"),
+        @Index(name = "idx_properties_agent_id", columnList = "agent_id, id"),
+        @Index(name = "idx_properties_price", columnList = "price, id"),
+        // Incremental export of rows changed since a timestamp (see PropertyExportService)
+        @Index(name = "idx_properties_updated_at", columnList = "updated_at, id")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Property {
     
+    // Block-allocated sequence ids, so inserts can be batched (see IdSequenceMigration)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_id_seq")
+    @SequenceGenerator(name = "property_id_seq", sequenceName = "properties_id_seq", allocationSize = IdSequenceMigration.DEFAULT_ALLOCATION_SIZE)
     private Long id;
     
+    // Optimistic-lock version; also the source of the HTTP ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    
+    // Set on insert and on every update, including image changes (see PropertyImageService)
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+    
     @NotBlank(message = "Title is required")
     @Column(nullable = false)
     private String title;
@@ -47,6 +74,7 @@ public class Property {
     private Agent agent;
     
     @OneToMany(mappedBy = "property", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("displayOrder ASC, id ASC")
     private List<PropertyImage> images = new ArrayList<>();
     
     // Helper method to add an image
@@ -70,6 +98,22 @@ public class Property {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public String getTitle() {
         return title;
     }
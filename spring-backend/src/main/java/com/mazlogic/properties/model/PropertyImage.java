@@ -1,19 +1,26 @@
 package com.mazlogic.properties.model;
 
-import javax.persistence.*;
-import javax.validation.constraints.NotBlank;
+import com.mazlogic.properties.config.IdSequenceMigration;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "property_images")
+@Table(name = "property_images", indexes = {
+        @Index(name = "idx_property_images_property_order", columnList = "property_id, displayOrder, id"),
+        @Index(name = "idx_property_images_file_name", columnList = "fileName"),
+        @Index(name = "idx_property_images_content_hash", columnList = "contentHash")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class PropertyImage {
     
+    // Block-allocated sequence ids, so inserts can be batched (see IdSequenceMigration)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_image_id_seq")
+    @SequenceGenerator(name = "property_image_id_seq", sequenceName = "property_images_id_seq", allocationSize = IdSequenceMigration.DEFAULT_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Image file name is required")
@@ -30,6 +37,10 @@ public class PropertyImage {
     // File size in bytes
     private Long fileSize;
     
+    // Lower-case hex SHA-256 of the original, computed while it was stored
+    @Column(length = 64)
+    private String contentHash;
+    
     // Image content type
     private String contentType;
     
@@ -39,6 +50,23 @@ public class PropertyImage {
     // Order for display
     private Integer displayOrder;
     
+    // Dimensions of the original, when it could be decoded
+    private Integer width;
+    
+    private Integer height;
+    
+    // Generated downscaled variants (see ImageVariant); null when not generated
+    private String thumbnailFileName;
+    
+    private String cardFileName;
+    
+    private String fullFileName;
+    
+    // Variant generation state; null for images uploaded before processing was tracked
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private ImageStatus status;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "property_id", nullable = false)
     private Property property;
@@ -84,6 +112,14 @@ public class PropertyImage {
         this.fileSize = fileSize;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public String getContentType() {
         return contentType;
     }
@@ -108,6 +144,78 @@ public class PropertyImage {
         this.displayOrder = displayOrder;
     }
 
+    public ImageStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ImageStatus status) {
+        this.status = status;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public String getThumbnailFileName() {
+        return thumbnailFileName;
+    }
+
+    public void setThumbnailFileName(String thumbnailFileName) {
+        this.thumbnailFileName = thumbnailFileName;
+    }
+
+    public String getCardFileName() {
+        return cardFileName;
+    }
+
+    public void setCardFileName(String cardFileName) {
+        this.cardFileName = cardFileName;
+    }
+
+    public String getFullFileName() {
+        return fullFileName;
+    }
+
+    public void setFullFileName(String fullFileName) {
+        this.fullFileName = fullFileName;
+    }
+
+    public String getVariantFileName(ImageVariant variant) {
+        switch (variant) {
+            case THUMBNAIL:
+                return thumbnailFileName;
+            case CARD:
+                return cardFileName;
+            default:
+                return fullFileName;
+        }
+    }
+
+    public void setVariantFileName(ImageVariant variant, String fileName) {
+        switch (variant) {
+            case THUMBNAIL:
+                thumbnailFileName = fileName;
+                break;
+            case CARD:
+                cardFileName = fileName;
+                break;
+            default:
+                fullFileName = fileName;
+        }
+    }
+
     public Property getProperty() {
         return property;
     }
@@ -1,7 +1,7 @@
 package com.mazlogic.properties.model.dto;
 
-import javax.validation.constraints.Email;
-import javax.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,4 +21,6 @@ public class AgentDTO {
     
     @NotBlank(message = "Phone number is required")
     private String phone;
+    
+    private Long version;
 }
@@ -0,0 +1,21 @@
+package com.mazlogic.properties.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of the change feed. Pass {@code nextOffset} back as {@code after} to continue;
+ * it equals the requested offset when nothing new was committed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDTO {
+    private List<ChangeRecordDTO> changes = new ArrayList<>();
+    private long nextOffset;
+    private boolean hasMore;
+}
@@ -0,0 +1,25 @@
+package com.mazlogic.properties.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.mazlogic.properties.event.PropertyChangedEvent.ChangeType;
+import com.mazlogic.properties.model.ChangeRecord.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeRecordDTO {
+    private long offset;
+    private EntityType entityType;
+    private ChangeType changeType;
+    private Long entityId;
+    private Long propertyId;
+    private Instant createdAt;
+    // PropertyDTO or PropertyImageDTO as stored; null for deletions
+    @JsonRawValue
+    private String payload;
+}
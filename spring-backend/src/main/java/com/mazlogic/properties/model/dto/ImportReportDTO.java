@@ -0,0 +1,21 @@
+package com.mazlogic.properties.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk property import, with one result per row in document order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+    private int total;
+    private int created;
+    private int failed;
+    private List<ImportRowResultDTO> rows = new ArrayList<>();
+}
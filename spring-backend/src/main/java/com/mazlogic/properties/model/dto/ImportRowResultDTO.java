@@ -0,0 +1,30 @@
+package com.mazlogic.properties.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowResultDTO {
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+    
+    private long line;
+    private Status status;
+    // Set for created rows
+    private Long propertyId;
+    // Set for failed rows
+    private String error;
+    
+    public static ImportRowResultDTO created(long line, Long propertyId) {
+        return new ImportRowResultDTO(line, Status.CREATED, propertyId, null);
+    }
+    
+    public static ImportRowResultDTO failed(long line, String error) {
+        return new ImportRowResultDTO(line, Status.FAILED, null, error);
+    }
+}
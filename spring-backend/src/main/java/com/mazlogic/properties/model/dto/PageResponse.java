@@ -0,0 +1,22 @@
+package com.mazlogic.properties.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated listing. Pass {@code nextCursor} back as the
+ * {@code cursor} request parameter to read the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> content = new ArrayList<>();
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -1,8 +1,8 @@
 package com.mazlogic.properties.model.dto;
 
-import javax.validation.constraints.NotBlank;
-import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Positive;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,6 +16,8 @@ import java.util.List;
 public class PropertyDTO {
     private Long id;
     
+    private Long version;
+    
     @NotBlank(message = "Title is required")
     private String title;
     
@@ -0,0 +1,50 @@
+package com.mazlogic.properties.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Flat export record (one NDJSON line or CSV row). Built from a JPQL constructor
+ * expression, so streaming the export never creates managed entities. Incremental exports
+ * also carry tombstones for deleted listings: only the id, the deletion time as
+ * {@code updatedAt} and {@code deleted: true}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "version", "updatedAt", "title", "description", "price", "type", "location",
+        "agentId", "agentName", "agentEmail", "deleted"})
+public class PropertyExportRow {
+    private Long id;
+    private Long version;
+    private Instant updatedAt;
+    private String title;
+    private String description;
+    private Double price;
+    private String type; // 'rent' or 'sale'
+    private String location;
+    private Long agentId;
+    private String agentName;
+    private String agentEmail;
+    // Only set on tombstones, so listing lines stay as they were
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean deleted;
+
+    public PropertyExportRow(Long id, Long version, Instant updatedAt, String title, String description,
+                             Double price, String type, String location, Long agentId, String agentName,
+                             String agentEmail) {
+        this(id, version, updatedAt, title, description, price, type, location, agentId, agentName, agentEmail, null);
+    }
+
+    // Tombstone
+    public PropertyExportRow(Long id, Instant deletedAt) {
+        this.id = id;
+        this.updatedAt = deletedAt;
+        this.deleted = true;
+    }
+}
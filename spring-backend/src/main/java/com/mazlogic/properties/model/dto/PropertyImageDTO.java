@@ -1,5 +1,6 @@
 package com.mazlogic.properties.model.dto;
 
+import com.mazlogic.properties.model.ImageStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,4 +14,11 @@ public class PropertyImageDTO {
     private String description;
     private Integer displayOrder;
     private String originalFileName;
+    private ImageStatus status;
+    private Integer width;
+    private Integer height;
+    // Downscaled variants; each falls back to imageUrl when it was not generated
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String fullUrl;
 }
@@ -0,0 +1,44 @@
+package com.mazlogic.properties.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One listing of a bulk import (an NDJSON object or a CSV row). The agent is referenced
+ * by {@code agentId} or, when that is absent, by {@code agentEmail}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PropertyImportRow {
+    // Line in the uploaded document, for the result report
+    @JsonIgnore
+    private long line;
+    
+    @NotBlank(message = "Title is required")
+    private String title;
+    
+    @NotBlank(message = "Description is required")
+    private String description;
+    
+    @NotNull(message = "Price is required")
+    @Positive(message = "Price must be a positive value")
+    private Double price;
+    
+    @NotBlank(message = "Property type is required")
+    private String type; // 'rent' or 'sale'
+    
+    @NotBlank(message = "Location is required")
+    private String location;
+    
+    private Long agentId;
+    
+    private String agentEmail;
+}
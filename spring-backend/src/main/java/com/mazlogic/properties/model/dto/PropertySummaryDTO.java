@@ -0,0 +1,36 @@
+package com.mazlogic.properties.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight, read-only listing row. Built directly from a JPQL constructor
+ * expression, so it never passes through a managed entity and carries no description.
+ */
+@Data
+@NoArgsConstructor
+public class PropertySummaryDTO {
+    private Long id;
+    private String title;
+    private Double price;
+    private String type; // 'rent' or 'sale'
+    private String location;
+    private Long agentId;
+    private String agentName;
+    private List<String> imageUrls = new ArrayList<>();
+
+    // Used by the repository's constructor projection
+    public PropertySummaryDTO(Long id, String title, Double price, String type, String location,
+                              Long agentId, String agentName) {
+        this.id = id;
+        this.title = title;
+        this.price = price;
+        this.type = type;
+        this.location = location;
+        this.agentId = agentId;
+        this.agentName = agentName;
+    }
+}
@@ -0,0 +1,22 @@
+package com.mazlogic.properties.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Image storage statistics extrapolated from a sample of shards.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageStatsDTO {
+    private String backend;
+    private String location;
+    private int sampledShards;
+    private int totalShards;
+    private long sampledFiles;
+    private long sampledBytes;
+    private long estimatedFiles;
+    private long estimatedBytes;
+}
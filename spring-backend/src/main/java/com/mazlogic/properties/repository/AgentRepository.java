@@ -1,13 +1,38 @@
 package com.mazlogic.properties.repository;
 
 import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.dto.AgentDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AgentRepository extends JpaRepository<Agent, Long> {
     Optional<Agent> findByEmail(String email);
     boolean existsByEmail(String email);
+    
+    List<Agent> findByEmailIn(Collection<String> emails);
+    
+    // Read-only projections: no managed Agent (or its properties collection) is created
+    @Query("SELECT new com.mazlogic.properties.model.dto.AgentDTO(a.id, a.name, a.email, a.phone, a.version) " +
+           "FROM Agent a ORDER BY a.id")
+    List<AgentDTO> findAllAsDTO();
+    
+    @Query("SELECT new com.mazlogic.properties.model.dto.AgentDTO(a.id, a.name, a.email, a.phone, a.version) " +
+           "FROM Agent a WHERE a.id = :id")
+    Optional<AgentDTO> findDTOById(Long id);
+    
+    @Query("SELECT new com.mazlogic.properties.model.dto.AgentDTO(a.id, a.name, a.email, a.phone, a.version) " +
+           "FROM Agent a WHERE a.email = :email")
+    Optional<AgentDTO> findDTOByEmail(String email);
+    
+    @Query("SELECT a.version FROM Agent a WHERE a.id = :id")
+    Optional<Long> findVersionById(Long id);
+    
+    @Query("SELECT a.id AS id, a.version AS version FROM Agent a ORDER BY a.id")
+    List<AgentVersion> findAllVersions();
 }
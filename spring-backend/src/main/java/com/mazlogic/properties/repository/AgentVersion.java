@@ -0,0 +1,10 @@
+package com.mazlogic.properties.repository;
+
+/**
+ * Interface projection of an agent's ID and optimistic-lock version.
+ */
+public interface AgentVersion {
+    Long getId();
+
+    Long getVersion();
+}
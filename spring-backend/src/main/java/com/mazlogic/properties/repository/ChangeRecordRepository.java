@@ -0,0 +1,48 @@
+package com.mazlogic.properties.repository;
+
+import com.mazlogic.properties.model.ChangeRecord;
+import com.mazlogic.properties.model.dto.PropertyExportRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ChangeRecordRepository extends JpaRepository<ChangeRecord, Long> {
+
+    // Read-write transactions keep the feed reads on the primary: a poll or stream woken by a
+    // commit must see it, which a lagging replica might not yet (see DataSourceConfig)
+    @Transactional
+    @Query("SELECT c FROM ChangeRecord c WHERE c.feedOffset > :after ORDER BY c.feedOffset")
+    List<ChangeRecord> findAfter(@Param("after") long after, Pageable pageable);
+
+    // From the head rather than the records, which are pruned
+    @Transactional
+    @Query("SELECT COALESCE(MAX(h.lastOffset), 0) FROM ChangeFeedHead h")
+    long findLastOffset();
+
+    boolean existsByFeedOffsetIsNull();
+
+    // Tombstones for the incremental export; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new com.mazlogic.properties.model.dto.PropertyExportRow(c.entityId, c.createdAt) " +
+           "FROM ChangeRecord c WHERE c.entityType = PROPERTY AND c.changeType = DELETED " +
+           "AND c.createdAt > :since ORDER BY c.createdAt, c.id")
+    Stream<PropertyExportRow> streamPropertyDeletionsSince(@Param("since") Instant since);
+
+    @Query("SELECT c FROM ChangeRecord c WHERE c.feedOffset IS NULL ORDER BY c.id")
+    List<ChangeRecord> findUnsequenced(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ChangeRecord c WHERE c.createdAt < :before AND c.feedOffset IS NOT NULL")
+    int deleteSequencedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,112 @@
+package com.mazlogic.properties.repository;
+
+import com.mazlogic.properties.model.Property;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Seek position of a property listing page.
+ *
+ * The cursor is handed to clients as an opaque URL-safe token and holds the sort key
+ * values of the last row of the previous page, so the next page can be read with an
+ * indexed range predicate instead of an OFFSET scan.
+ */
+public class PropertyCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final PropertySort sort;
+    private final Double price;
+    private final Float score;
+    private final Long id;
+
+    private PropertyCursor(PropertySort sort, Double price, Float score, Long id) {
+        this.sort = sort;
+        this.price = price;
+        this.score = score;
+        this.id = id;
+    }
+
+    public static PropertyCursor after(Property property, PropertySort sort) {
+        return after(property.getId(), property.getPrice(), sort);
+    }
+
+    public static PropertyCursor after(Long id, Double price, PropertySort sort) {
+        return new PropertyCursor(sort, sort == PropertySort.PRICE ? price : null, null, id);
+    }
+
+    public static PropertyCursor afterSearchHit(Long id, Double price, Float score, PropertySort sort) {
+        return new PropertyCursor(sort,
+                sort == PropertySort.PRICE ? price : null,
+                sort == PropertySort.RELEVANCE ? score : null,
+                id);
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}. The token must have been issued for the
+     * same sort order, otherwise the seek position would be meaningless.
+     */
+    public static PropertyCursor decode(String token, PropertySort expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        PropertyCursor cursor = parse(token);
+        if (cursor == null) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        if (cursor.sort != expectedSort) {
+            throw new IllegalArgumentException("Cursor was issued for sort '" + cursor.sort.name().toLowerCase()
+                    + "', not '" + expectedSort.name().toLowerCase() + "'");
+        }
+        return cursor;
+    }
+
+    private static PropertyCursor parse(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            PropertySort sort = PropertySort.valueOf(parts[0]);
+            if (sort == PropertySort.PRICE && parts.length == 3) {
+                return new PropertyCursor(sort, Double.valueOf(parts[1]), null, Long.valueOf(parts[2]));
+            }
+            if (sort == PropertySort.RELEVANCE && parts.length == 3) {
+                return new PropertyCursor(sort, null, Float.valueOf(parts[1]), Long.valueOf(parts[2]));
+            }
+            if (sort == PropertySort.ID && parts.length == 2) {
+                return new PropertyCursor(sort, null, null, Long.valueOf(parts[1]));
+            }
+            return null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String raw;
+        if (sort == PropertySort.PRICE) {
+            raw = sort.name() + SEPARATOR + price + SEPARATOR + id;
+        } else if (sort == PropertySort.RELEVANCE) {
+            raw = sort.name() + SEPARATOR + score + SEPARATOR + id;
+        } else {
+            raw = sort.name() + SEPARATOR + id;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public PropertySort getSort() {
+        return sort;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public Float getScore() {
+        return score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,68 @@
+package com.mazlogic.properties.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional restrictions applied to a property listing page. Null fields are ignored.
+ * A non-blank keyword or location routes the page through the full-text search index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyFilter {
+    private String type;
+    private Long agentId;
+    private Double minPrice;
+    private Double maxPrice;
+    private String location;
+    private String keyword;
+
+    public boolean hasKeyword() {
+        return keyword != null && !keyword.isBlank();
+    }
+
+    public boolean hasLocation() {
+        return location != null && !location.isBlank();
+    }
+
+    // Free-text restrictions are answered by the search index rather than SQL
+    public boolean requiresTextSearch() {
+        return hasKeyword() || hasLocation();
+    }
+
+    public void validate() {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+    }
+
+    public static PropertyFilter none() {
+        return new PropertyFilter();
+    }
+
+    public static PropertyFilter byType(String type) {
+        PropertyFilter filter = new PropertyFilter();
+        filter.setType(type);
+        return filter;
+    }
+
+    public static PropertyFilter byAgentId(Long agentId) {
+        PropertyFilter filter = new PropertyFilter();
+        filter.setAgentId(agentId);
+        return filter;
+    }
+
+    public static PropertyFilter byMaxPrice(Double maxPrice) {
+        PropertyFilter filter = new PropertyFilter();
+        filter.setMaxPrice(maxPrice);
+        return filter;
+    }
+
+    public static PropertyFilter byKeyword(String keyword) {
+        PropertyFilter filter = new PropertyFilter();
+        filter.setKeyword(keyword);
+        return filter;
+    }
+}
@@ -1,10 +1,16 @@
 package com.mazlogic.properties.repository;
 
+import com.mazlogic.properties.model.ImageStatus;
 import com.mazlogic.properties.model.PropertyImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PropertyImageRepository extends JpaRepository<PropertyImage, Long> {
@@ -12,5 +18,31 @@ public interface PropertyImageRepository extends JpaRepository<PropertyImage, Lo
     
     List<PropertyImage> findByPropertyIdOrderByDisplayOrderAsc(Long propertyId);
     
+    @Query("SELECT i FROM PropertyImage i WHERE i.property.id IN :propertyIds " +
+           "ORDER BY i.property.id, i.displayOrder, i.id")
+    List<PropertyImage> findByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
+    
+    @Query("SELECT i.property.id AS propertyId, i.imageUrl AS imageUrl, i.cardFileName AS cardFileName " +
+           "FROM PropertyImage i " +
+           "WHERE i.property.id IN :propertyIds ORDER BY i.property.id, i.displayOrder, i.id")
+    List<PropertyImageUrl> findImageUrlsByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
+    
+    @Query("SELECT i.id FROM PropertyImage i WHERE i.status = :status ORDER BY i.id")
+    List<Long> findIdsByStatus(@Param("status") ImageStatus status);
+    
+    // Read right after the upload commits: a read-write transaction keeps it on the primary,
+    // which a lagging replica might not match yet (see DataSourceConfig)
+    @Transactional
+    @Query("SELECT i FROM PropertyImage i WHERE i.id = :id")
+    Optional<PropertyImage> findOnPrimaryById(@Param("id") Long id);
+    
+    // Reference count of a content-addressed file, checked before the file is deleted.
+    // Read right after the upload commits: a read-write transaction keeps it on the primary,
+    // which a lagging replica might not match yet (see DataSourceConfig)
+    @Transactional
+    long countByFileName(String fileName);
+    
+    Optional<PropertyImage> findFirstByContentHashAndStatusOrderByIdAsc(String contentHash, ImageStatus status);
+    
     void deleteByPropertyId(Long propertyId);
 }
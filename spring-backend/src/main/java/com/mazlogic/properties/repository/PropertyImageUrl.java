@@ -0,0 +1,12 @@
+package com.mazlogic.properties.repository;
+
+/**
+ * Interface projection of an image URL, its card variant and the property it belongs to.
+ */
+public interface PropertyImageUrl {
+    Long getPropertyId();
+
+    String getImageUrl();
+
+    String getCardFileName();
+}
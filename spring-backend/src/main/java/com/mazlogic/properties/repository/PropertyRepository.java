@@ -1,24 +1,53 @@
 package com.mazlogic.properties.repository;
 
 import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.dto.PropertyExportRow;
+import com.mazlogic.properties.model.dto.PropertySummaryDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, Long> {
-    List<Property> findByType(String type);
+public interface PropertyRepository extends JpaRepository<Property, Long>, PropertyRepositoryCustom {
     
-    List<Property> findByAgentId(Long agentId);
+    @Query("SELECT p FROM Property p JOIN FETCH p.agent WHERE p.id IN :ids")
+    List<Property> findAllWithAgentByIdIn(@Param("ids") Collection<Long> ids);
     
-    @Query("SELECT p FROM Property p WHERE p.price <= :maxPrice")
-    List<Property> findByPriceLessThanEqual(Double maxPrice);
+    @Query("SELECT new com.mazlogic.properties.model.dto.PropertySummaryDTO(" +
+           "p.id, p.title, p.price, p.type, p.location, a.id, a.name) " +
+           "FROM Property p JOIN p.agent a WHERE p.id IN :ids")
+    List<PropertySummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
     
-    @Query("SELECT p FROM Property p WHERE " +
-           "LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(p.location) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Property> searchByKeyword(String keyword);
+    @Query("SELECT new com.mazlogic.properties.repository.PropertyVersion(p.id, p.version, a.version) " +
+           "FROM Property p JOIN p.agent a WHERE p.id = :id")
+    Optional<PropertyVersion> findVersionById(@Param("id") Long id);
+    
+    @Query("SELECT p.id FROM Property p WHERE p.agent.id = :agentId ORDER BY p.id")
+    List<Long> findIdsByAgentId(@Param("agentId") Long agentId);
+    
+    @Query("SELECT p.id FROM Property p WHERE p.updatedAt > :since ORDER BY p.id")
+    List<Long> findIdsChangedSince(@Param("since") Instant since);
+    
+    // Forward-only cursors for the streaming export; must be consumed inside a transaction
+    // (PostgreSQL only honours the fetch size with auto-commit off)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new com.mazlogic.properties.model.dto.PropertyExportRow(" +
+           "p.id, p.version, p.updatedAt, p.title, p.description, p.price, p.type, p.location, a.id, a.name, a.email) " +
+           "FROM Property p JOIN p.agent a ORDER BY p.id")
+    Stream<PropertyExportRow> streamExport();
+    
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT new com.mazlogic.properties.model.dto.PropertyExportRow(" +
+           "p.id, p.version, p.updatedAt, p.title, p.description, p.price, p.type, p.location, a.id, a.name, a.email) " +
+           "FROM Property p JOIN p.agent a WHERE p.updatedAt > :since ORDER BY p.updatedAt, p.id")
+    Stream<PropertyExportRow> streamExportChangedSince(@Param("since") Instant since);
 }
@@ -0,0 +1,29 @@
+package com.mazlogic.properties.repository;
+
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.dto.PropertySummaryDTO;
+
+import java.util.List;
+
+public interface PropertyRepositoryCustom {
+
+    /**
+     * Reads at most {@code limit} properties matching the filter, ordered by the given sort
+     * and starting strictly after the cursor position (or from the beginning when it is null).
+     * The filter keyword and location are not applied here; those searches are served by
+     * the search index.
+     */
+    List<Property> findPage(PropertyFilter filter, PropertySort sort, PropertyCursor after, int limit);
+
+    /**
+     * Same page as {@link #findPage} but projected straight into summary rows, without
+     * hydrating managed entities or reading the description column.
+     */
+    List<PropertySummaryDTO> findSummaryPage(PropertyFilter filter, PropertySort sort, PropertyCursor after, int limit);
+
+    /**
+     * Same page as {@link #findPage} reduced to the ID and versions of each row, enough to
+     * compute the page's ETag without loading or rendering it.
+     */
+    List<PropertyVersion> findPageVersions(PropertyFilter filter, PropertySort sort, PropertyCursor after, int limit);
+}
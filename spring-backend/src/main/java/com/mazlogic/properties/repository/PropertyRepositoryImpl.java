@@ -0,0 +1,124 @@
+package com.mazlogic.properties.repository;
+
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.dto.PropertySummaryDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PropertyRepositoryImpl implements PropertyRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Property> findPage(PropertyFilter filter, PropertySort sort, PropertyCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Property> query = cb.createQuery(Property.class);
+        Root<Property> property = query.from(Property.class);
+        // Fetch the agent in the same statement instead of one EAGER select per agent
+        property.fetch("agent", JoinType.INNER);
+
+        query.select(property)
+                .where(pagePredicates(cb, property, filter, sort, after))
+                .orderBy(pageOrder(cb, property, sort));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<PropertySummaryDTO> findSummaryPage(PropertyFilter filter, PropertySort sort, PropertyCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertySummaryDTO> query = cb.createQuery(PropertySummaryDTO.class);
+        Root<Property> property = query.from(Property.class);
+        Join<Property, Agent> agent = property.join("agent", JoinType.INNER);
+
+        query.select(cb.construct(PropertySummaryDTO.class,
+                        property.get("id"),
+                        property.get("title"),
+                        property.get("price"),
+                        property.get("type"),
+                        property.get("location"),
+                        agent.get("id"),
+                        agent.get("name")))
+                .where(pagePredicates(cb, property, filter, sort, after))
+                .orderBy(pageOrder(cb, property, sort));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<PropertyVersion> findPageVersions(PropertyFilter filter, PropertySort sort, PropertyCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertyVersion> query = cb.createQuery(PropertyVersion.class);
+        Root<Property> property = query.from(Property.class);
+        Join<Property, Agent> agent = property.join("agent", JoinType.INNER);
+
+        query.select(cb.construct(PropertyVersion.class,
+                        property.get("id"),
+                        property.get("version"),
+                        agent.get("version")))
+                .where(pagePredicates(cb, property, filter, sort, after))
+                .orderBy(pageOrder(cb, property, sort));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private Predicate[] pagePredicates(CriteriaBuilder cb, Root<Property> property,
+                                       PropertyFilter filter, PropertySort sort, PropertyCursor after) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            if (filter.getType() != null) {
+                predicates.add(cb.equal(property.get("type"), filter.getType()));
+            }
+            if (filter.getAgentId() != null) {
+                predicates.add(cb.equal(property.get("agent").get("id"), filter.getAgentId()));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(property.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(property.get("price"), filter.getMaxPrice()));
+            }
+        }
+
+        // Seek past the last row of the previous page: (price, id) > (:price, :id) or id > :id
+        if (after != null) {
+            if (sort == PropertySort.PRICE) {
+                predicates.add(cb.or(
+                        cb.greaterThan(property.get("price"), after.getPrice()),
+                        cb.and(
+                                cb.equal(property.get("price"), after.getPrice()),
+                                cb.greaterThan(property.get("id"), after.getId()))));
+            } else {
+                predicates.add(cb.greaterThan(property.get("id"), after.getId()));
+            }
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private List<Order> pageOrder(CriteriaBuilder cb, Root<Property> property, PropertySort sort) {
+        List<Order> order = new ArrayList<>();
+        if (sort == PropertySort.PRICE) {
+            order.add(cb.asc(property.get("price")));
+        }
+        order.add(cb.asc(property.get("id")));
+        return order;
+    }
+}
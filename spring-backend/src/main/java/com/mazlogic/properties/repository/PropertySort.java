@@ -0,0 +1,37 @@
+package com.mazlogic.properties.repository;
+
+/**
+ * Sort orders supported by the keyset (cursor) pagination of property listings.
+ * Every order ends on the primary key so the seek position is always unique.
+ * RELEVANCE is only available for keyword searches, which are served by the search index.
+ */
+public enum PropertySort {
+    ID,
+    PRICE,
+    RELEVANCE;
+
+    public static PropertySort fromParameter(String value) {
+        return fromParameter(value, ID);
+    }
+
+    // Orders a keyset query can seek on, i.e. everything but relevance
+    public static PropertySort forKeyset(String value) {
+        PropertySort sort = fromParameter(value);
+        if (sort == RELEVANCE) {
+            throw new IllegalArgumentException("Sort 'relevance' is only available for keyword searches");
+        }
+        return sort;
+    }
+
+    public static PropertySort fromParameter(String value, PropertySort defaultSort) {
+        if (value == null || value.isBlank()) {
+            return defaultSort;
+        }
+        for (PropertySort sort : values()) {
+            if (sort.name().equalsIgnoreCase(value.trim())) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + value + " (expected 'id', 'price' or 'relevance')");
+    }
+}
@@ -0,0 +1,30 @@
+package com.mazlogic.properties.repository;
+
+/**
+ * ID and versions of a property and its agent: everything that determines the
+ * property's JSON representation, read without hydrating the entity.
+ */
+public class PropertyVersion {
+
+    private final Long id;
+    private final Long version;
+    private final Long agentVersion;
+
+    public PropertyVersion(Long id, Long version, Long agentVersion) {
+        this.id = id;
+        this.version = version;
+        this.agentVersion = agentVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public Long getAgentVersion() {
+        return agentVersion;
+    }
+}
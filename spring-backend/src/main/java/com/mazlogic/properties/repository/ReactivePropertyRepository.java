@@ -0,0 +1,153 @@
+package com.mazlogic.properties.repository;
+
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.ImageStatus;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.PropertyImage;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking read access to properties over R2DBC, for the streaming listing endpoints.
+ * Rows are mapped onto the JPA entity classes as plain, unmanaged objects, so the DTO
+ * mapping of the blocking read path applies unchanged. The keyset predicates and ordering
+ * mirror {@link PropertyRepositoryImpl}, so the same indexes serve both paths.
+ */
+@Repository
+public class ReactivePropertyRepository {
+
+    private static final String PROPERTY_COLUMNS =
+            "SELECT p.id, p.version, p.title, p.description, p.price, p.type, p.location, " +
+            "a.id AS agent_id, a.version AS agent_version, a.name AS agent_name, " +
+            "a.email AS agent_email, a.phone AS agent_phone " +
+            "FROM properties p JOIN agents a ON a.id = p.agent_id";
+
+    private static final String IMAGE_COLUMNS =
+            "SELECT i.id, i.property_id, i.image_url, i.description, i.display_order, i.original_file_name, " +
+            "i.status, i.width, i.height, i.thumbnail_file_name, i.card_file_name, i.full_file_name " +
+            "FROM property_images i";
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactivePropertyRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Streams every property matching the filter in keyset order, starting after the cursor.
+     * Rows are fetched from the database as the subscriber requests them, fetchSize at a time.
+     */
+    public Flux<Property> findAll(PropertyFilter filter, PropertySort sort, PropertyCursor after, int fetchSize) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (filter.getType() != null) {
+            predicates.add("p.type = :type");
+            parameters.put("type", filter.getType());
+        }
+        if (filter.getAgentId() != null) {
+            predicates.add("p.agent_id = :agentId");
+            parameters.put("agentId", filter.getAgentId());
+        }
+        if (filter.getMinPrice() != null) {
+            predicates.add("p.price >= :minPrice");
+            parameters.put("minPrice", filter.getMinPrice());
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add("p.price <= :maxPrice");
+            parameters.put("maxPrice", filter.getMaxPrice());
+        }
+        // Seek past the cursor: (price, id) > (:price, :id) or id > :id
+        if (after != null) {
+            if (sort == PropertySort.PRICE) {
+                predicates.add("(p.price > :afterPrice OR (p.price = :afterPrice AND p.id > :afterId))");
+                parameters.put("afterPrice", after.getPrice());
+            } else {
+                predicates.add("p.id > :afterId");
+            }
+            parameters.put("afterId", after.getId());
+        }
+
+        StringBuilder sql = new StringBuilder(PROPERTY_COLUMNS);
+        if (!predicates.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        sql.append(sort == PropertySort.PRICE ? " ORDER BY p.price, p.id" : " ORDER BY p.id");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .filter(statement -> statement.fetchSize(fetchSize));
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        return spec.map(ReactivePropertyRepository::toProperty).all();
+    }
+
+    public Flux<Property> findAllByIdIn(Collection<Long> ids) {
+        return databaseClient.sql(PROPERTY_COLUMNS + " WHERE p.id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactivePropertyRepository::toProperty)
+                .all();
+    }
+
+    /**
+     * Images of several properties in display order, grouped by property. Each image
+     * references its property by ID only.
+     */
+    public Flux<PropertyImage> findImagesByPropertyIdIn(Collection<Long> propertyIds) {
+        return databaseClient.sql(IMAGE_COLUMNS + " WHERE i.property_id IN (:propertyIds) " +
+                        "ORDER BY i.property_id, i.display_order, i.id")
+                .bind("propertyIds", propertyIds)
+                .map(ReactivePropertyRepository::toImage)
+                .all();
+    }
+
+    private static Property toProperty(Readable row) {
+        Agent agent = new Agent();
+        agent.setId(row.get("agent_id", Long.class));
+        agent.setVersion(row.get("agent_version", Long.class));
+        agent.setName(row.get("agent_name", String.class));
+        agent.setEmail(row.get("agent_email", String.class));
+        agent.setPhone(row.get("agent_phone", String.class));
+
+        Property property = new Property();
+        property.setId(row.get("id", Long.class));
+        property.setVersion(row.get("version", Long.class));
+        property.setTitle(row.get("title", String.class));
+        property.setDescription(row.get("description", String.class));
+        property.setPrice(row.get("price", Double.class));
+        property.setType(row.get("type", String.class));
+        property.setLocation(row.get("location", String.class));
+        property.setAgent(agent);
+        return property;
+    }
+
+    private static PropertyImage toImage(Readable row) {
+        Property property = new Property();
+        property.setId(row.get("property_id", Long.class));
+
+        PropertyImage image = new PropertyImage();
+        image.setId(row.get("id", Long.class));
+        image.setImageUrl(row.get("image_url", String.class));
+        image.setDescription(row.get("description", String.class));
+        image.setDisplayOrder(row.get("display_order", Integer.class));
+        image.setOriginalFileName(row.get("original_file_name", String.class));
+        String status = row.get("status", String.class);
+        image.setStatus(status != null ? ImageStatus.valueOf(status) : null);
+        image.setWidth(row.get("width", Integer.class));
+        image.setHeight(row.get("height", Integer.class));
+        image.setThumbnailFileName(row.get("thumbnail_file_name", String.class));
+        image.setCardFileName(row.get("card_file_name", String.class));
+        image.setFullFileName(row.get("full_file_name", String.class));
+        image.setProperty(property);
+        return image;
+    }
+}
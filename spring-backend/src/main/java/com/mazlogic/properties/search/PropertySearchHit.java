@@ -0,0 +1,37 @@
+package com.mazlogic.properties.search;
+
+import com.mazlogic.properties.repository.PropertyCursor;
+import com.mazlogic.properties.repository.PropertySort;
+
+/**
+ * A property matched by the search index, with the sort values needed to continue
+ * paging after it.
+ */
+public class PropertySearchHit {
+
+    private final Long propertyId;
+    private final Double price;
+    private final Float score;
+
+    public PropertySearchHit(Long propertyId, Double price, Float score) {
+        this.propertyId = propertyId;
+        this.price = price;
+        this.score = score;
+    }
+
+    public PropertyCursor toCursor(PropertySort sort) {
+        return PropertyCursor.afterSearchHit(propertyId, price, score, sort);
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public Float getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,445 @@
+package com.mazlogic.properties.search;
+
+import com.mazlogic.properties.event.PropertiesImportedEvent;
+import com.mazlogic.properties.event.PropertyChangedEvent;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.repository.PropertyCursor;
+import com.mazlogic.properties.repository.PropertyFilter;
+import com.mazlogic.properties.repository.PropertyRepository;
+import com.mazlogic.properties.repository.PropertySort;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Embedded Lucene full-text index over property title, location and description.
+ *
+ * Replaces the LIKE '%keyword%' scan: every keyword term must match one of the text
+ * fields either exactly or as a prefix, title matches rank above location and
+ * description matches, and the structured filters run as index filters. The index is
+ * updated after each committed property write, committed to its directory every
+ * commit-interval and reconciled with the database on startup.
+ */
+@Component
+public class PropertySearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertySearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String ID_SORT = "id_sort";
+    private static final String PRICE = "price";
+    private static final String TYPE = "type";
+    private static final String AGENT_ID = "agentId";
+    private static final String TITLE = "title";
+    private static final String LOCATION = "location";
+    private static final String DESCRIPTION = "description";
+
+    // Text fields and their relevance boosts
+    private static final Map<String, Float> TEXT_FIELDS = new LinkedHashMap<>();
+
+    static {
+        TEXT_FIELDS.put(TITLE, 3.0f);
+        TEXT_FIELDS.put(LOCATION, 2.0f);
+        TEXT_FIELDS.put(DESCRIPTION, 1.0f);
+    }
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    // Commit user data: properties changed in the database before this instant are indexed
+    private static final String WATERMARK = "watermark";
+
+    private final PropertyRepository propertyRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    @Value("${application.search.index-directory:}")
+    private String indexDirectory;
+
+    // How far a commit's watermark trails the commit, to cover transactions still committing
+    // and index updates still to run after them
+    @Value("${application.search.watermark-lag:PT1M}")
+    private Duration watermarkLag;
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // Held by rebuilds and commits, so no commit records a half-built index. Not synchronized:
+    // a rebuild reads from the database, which would pin a virtual thread
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public PropertySearchIndex(PropertyRepository propertyRepository) {
+        this.propertyRepository = propertyRepository;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (indexDirectory == null || indexDirectory.isBlank()) {
+            directory = new ByteBuffersDirectory();
+        } else {
+            Path path = Paths.get(indexDirectory).toAbsolutePath().normalize();
+            Files.createDirectories(path);
+            directory = FSDirectory.open(path);
+        }
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Brings the index up to date with the database, e.g. after a crash before the last
+     * commit or rows changed outside the application. Properties changed since the last
+     * commit's watermark are indexed again; if the document count still differs from the
+     * properties table (rows deleted meanwhile), or the index has no watermark, it is rebuilt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        String watermark = committedWatermark();
+        if (watermark == null) {
+            log.info("Search index has no watermark; rebuilding");
+            rebuild();
+            return;
+        }
+        List<Long> changed = propertyRepository.findIdsChangedSince(Instant.parse(watermark));
+        try {
+            for (int from = 0; from < changed.size(); from += REBUILD_BATCH_SIZE) {
+                List<Long> ids = changed.subList(from, Math.min(from + REBUILD_BATCH_SIZE, changed.size()));
+                for (Property property : propertyRepository.findAllWithAgentByIdIn(ids)) {
+                    writer.updateDocument(new Term(ID, String.valueOf(property.getId())), toDocument(property));
+                }
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not reconcile the property search index", ex);
+        }
+        long indexed = writer.getDocStats().numDocs;
+        long stored = propertyRepository.count();
+        if (indexed != stored) {
+            log.info("Search index holds {} documents but the database has {} properties; rebuilding", indexed, stored);
+            rebuild();
+        } else {
+            log.info("Search index caught up with {} properties changed since {}", changed.size(), watermark);
+            commit();
+        }
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            Instant watermark = Instant.now().minus(watermarkLag);
+            writer.deleteAll();
+            PropertyCursor after = null;
+            List<Property> batch;
+            do {
+                batch = propertyRepository.findPage(PropertyFilter.none(), PropertySort.ID, after, REBUILD_BATCH_SIZE);
+                for (Property property : batch) {
+                    writer.addDocument(toDocument(property));
+                }
+                if (!batch.isEmpty()) {
+                    after = PropertyCursor.after(batch.get(batch.size() - 1), PropertySort.ID);
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            commit(watermark);
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not rebuild the property search index", ex);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Makes the index changes so far durable. Updates are only applied in memory, since a
+     * commit per write would sync the directory on every write; anything lost in a crash
+     * is changed after the last watermark and indexed again by {@link #reconcile()}.
+     */
+    @Scheduled(fixedDelayString = "${application.search.commit-interval:PT5S}")
+    public void commit() {
+        if (!writer.hasUncommittedChanges()) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            commit(Instant.now().minus(watermarkLag));
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not commit the property search index", ex);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void commit(Instant watermark) throws IOException {
+        writer.setLiveCommitData(Map.of(WATERMARK, watermark.toString()).entrySet());
+        writer.commit();
+    }
+
+    // The writer starts out with the user data of the commit it opened
+    private String committedWatermark() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : commitData) {
+            if (WATERMARK.equals(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    @TransactionalEventListener
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getChangeType() == PropertyChangedEvent.ChangeType.DELETED) {
+            remove(event.getPropertyId());
+        } else {
+            index(event.getProperty());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onPropertiesImported(PropertiesImportedEvent event) {
+        indexAll(event.getProperties());
+    }
+
+    public void index(PropertyDTO property) {
+        indexAll(Collections.singletonList(property));
+    }
+
+    // Refreshing the searcher dominates the cost, so batches share a single refresh
+    public void indexAll(List<PropertyDTO> properties) {
+        try {
+            for (PropertyDTO property : properties) {
+                writer.updateDocument(new Term(ID, String.valueOf(property.getId())),
+                        toDocument(property.getId(), property.getTitle(), property.getDescription(),
+                                property.getLocation(), property.getType(), property.getPrice(),
+                                property.getAgent() != null ? property.getAgent().getId() : null));
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not index " + properties.size() + " properties", ex);
+        }
+    }
+
+    public void remove(Long propertyId) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(propertyId)));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not remove property " + propertyId + " from the search index", ex);
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} hits for the filter's keyword and/or location, ordered by
+     * the given sort and starting strictly after the cursor position. Location terms only
+     * filter (as prefixes) and do not affect relevance.
+     */
+    public List<PropertySearchHit> search(PropertyFilter filter, PropertySort sort, PropertyCursor after, int limit) {
+        List<String> terms = analyze(filter.getKeyword());
+        List<String> locationTerms = analyze(filter.getLocation());
+        if ((filter.hasKeyword() && terms.isEmpty()) || (filter.hasLocation() && locationTerms.isEmpty())
+                || (terms.isEmpty() && locationTerms.isEmpty())) {
+            return new ArrayList<>();
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            // Each term must match some text field, exact matches scoring above prefix matches
+            BooleanQuery.Builder termQuery = new BooleanQuery.Builder();
+            TEXT_FIELDS.forEach((field, boost) -> {
+                termQuery.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD);
+                termQuery.add(new BoostQuery(new PrefixQuery(new Term(field, term)), boost / 2), BooleanClause.Occur.SHOULD);
+            });
+            query.add(termQuery.build(), BooleanClause.Occur.MUST);
+        }
+        if (filter.getType() != null) {
+            query.add(new TermQuery(new Term(TYPE, filter.getType())), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getAgentId() != null) {
+            query.add(LongPoint.newExactQuery(AGENT_ID, filter.getAgentId()), BooleanClause.Occur.FILTER);
+        }
+        for (String term : locationTerms) {
+            query.add(new PrefixQuery(new Term(LOCATION, term)), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            query.add(DoublePoint.newRangeQuery(PRICE,
+                    filter.getMinPrice() != null ? filter.getMinPrice() : Double.NEGATIVE_INFINITY,
+                    filter.getMaxPrice() != null ? filter.getMaxPrice() : Double.POSITIVE_INFINITY),
+                    BooleanClause.Occur.FILTER);
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            int maxDoc = searcher.getIndexReader().maxDoc();
+            if (maxDoc == 0) {
+                return new ArrayList<>();
+            }
+            TopFieldDocs topDocs = searcher.searchAfter(searchAfter(sort, after, maxDoc - 1), query.build(), limit,
+                    luceneSort(sort), sort == PropertySort.RELEVANCE);
+            List<PropertySearchHit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                hits.add(toHit(sort, (FieldDoc) scoreDoc));
+            }
+            return hits;
+        } catch (IOException ex) {
+            throw new RuntimeException("Property search failed", ex);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException ex) {
+                    log.warn("Could not release index searcher", ex);
+                }
+            }
+        }
+    }
+
+    private Document toDocument(Property property) {
+        return toDocument(property.getId(), property.getTitle(), property.getDescription(),
+                property.getLocation(), property.getType(), property.getPrice(),
+                property.getAgent() != null ? property.getAgent().getId() : null);
+    }
+
+    private Document toDocument(Long id, String title, String description, String location,
+                                String type, Double price, Long agentId) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(id), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID_SORT, id));
+        document.add(new TextField(TITLE, nullToEmpty(title), Field.Store.NO));
+        document.add(new TextField(LOCATION, nullToEmpty(location), Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, nullToEmpty(description), Field.Store.NO));
+        if (type != null) {
+            document.add(new StringField(TYPE, type, Field.Store.NO));
+        }
+        if (price != null) {
+            document.add(new DoublePoint(PRICE, price));
+            document.add(new DoubleDocValuesField(PRICE, price));
+        }
+        if (agentId != null) {
+            document.add(new LongPoint(AGENT_ID, agentId));
+        }
+        return document;
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not analyze search keyword", ex);
+        }
+        return terms;
+    }
+
+    private static Sort luceneSort(PropertySort sort) {
+        SortField id = new SortField(ID_SORT, SortField.Type.LONG);
+        switch (sort) {
+            case RELEVANCE:
+                return new Sort(SortField.FIELD_SCORE, id);
+            case PRICE:
+                return new Sort(new SortField(PRICE, SortField.Type.DOUBLE), id);
+            default:
+                return new Sort(id);
+        }
+    }
+
+    /*
+     * Property ids are unique, so the sort values alone identify the position. The doc id only
+     * breaks exact ties, and the highest doc id makes Lucene skip the previous page's last hit.
+     */
+    private static FieldDoc searchAfter(PropertySort sort, PropertyCursor after, int lastDoc) {
+        if (after == null) {
+            return null;
+        }
+        switch (sort) {
+            case RELEVANCE:
+                return new FieldDoc(lastDoc, after.getScore(), new Object[]{after.getScore(), after.getId()});
+            case PRICE:
+                return new FieldDoc(lastDoc, Float.NaN, new Object[]{after.getPrice(), after.getId()});
+            default:
+                return new FieldDoc(lastDoc, Float.NaN, new Object[]{after.getId()});
+        }
+    }
+
+    private static PropertySearchHit toHit(PropertySort sort, FieldDoc doc) {
+        switch (sort) {
+            case RELEVANCE:
+                return new PropertySearchHit((Long) doc.fields[1], null, (Float) doc.fields[0]);
+            case PRICE:
+                return new PropertySearchHit((Long) doc.fields[1], (Double) doc.fields[0], null);
+            default:
+                return new PropertySearchHit((Long) doc.fields[0], null, null);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
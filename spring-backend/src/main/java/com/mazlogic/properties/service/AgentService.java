@@ -1,41 +1,68 @@
 package com.mazlogic.properties.service;
 
+import com.mazlogic.properties.config.CacheConfig;
 import com.mazlogic.properties.model.Agent;
 import com.mazlogic.properties.model.dto.AgentDTO;
 import com.mazlogic.properties.repository.AgentRepository;
-import javax.persistence.EntityNotFoundException;
+import com.mazlogic.properties.repository.PropertyRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", description = "Service method latency")
 public class AgentService {
 
     private final AgentRepository agentRepository;
+    private final PropertyRepository propertyRepository;
+    private final PropertyService propertyService;
     
     @Autowired
-    public AgentService(AgentRepository agentRepository) {
+    public AgentService(AgentRepository agentRepository, PropertyRepository propertyRepository,
+                        PropertyService propertyService) {
         this.agentRepository = agentRepository;
+        this.propertyRepository = propertyRepository;
+        this.propertyService = propertyService;
     }
     
+    @Cacheable(cacheNames = CacheConfig.AGENT_LIST)
+    @Transactional(readOnly = true)
     public List<AgentDTO> getAllAgents() {
-        return agentRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return agentRepository.findAllAsDTO();
     }
     
+    @Cacheable(cacheNames = CacheConfig.AGENTS, key = "#id")
+    @Transactional(readOnly = true)
     public AgentDTO getAgentById(Long id) {
-        Agent agent = agentRepository.findById(id)
+        return agentRepository.findDTOById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Agent not found with ID: " + id));
+    }
+    
+    // ETags are read with version lookups so conditional GETs skip loading the agents
+    @Transactional(readOnly = true)
+    public String getAgentETag(Long id) {
+        return agentRepository.findVersionById(id)
+                .map(version -> ETags.agent(id, version))
                 .orElseThrow(() -> new EntityNotFoundException("Agent not found with ID: " + id));
-        return convertToDTO(agent);
     }
     
+    @Transactional(readOnly = true)
+    public String getAgentListETag() {
+        return ETags.agentList(agentRepository.findAllVersions());
+    }
+    
+    @CacheEvict(cacheNames = CacheConfig.AGENT_LIST, allEntries = true)
+    @Transactional
     public AgentDTO createAgent(AgentDTO agentDTO) {
         // Check for duplicate email
         if (agentRepository.existsByEmail(agentDTO.getEmail())) {
@@ -47,6 +74,13 @@ public class AgentService {
         return convertToDTO(savedAgent);
     }
     
+    // Cached property details embed the agent, so they are dropped as well
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AGENTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AGENT_LIST, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PROPERTIES, allEntries = true)
+    })
+    @Transactional
     public AgentDTO updateAgent(Long id, AgentDTO agentDTO) {
         Agent existingAgent = agentRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Agent not found with ID: " + id));
@@ -62,31 +96,37 @@ public class AgentService {
         existingAgent.setEmail(agentDTO.getEmail());
         existingAgent.setPhone(agentDTO.getPhone());
         
-        Agent updatedAgent = agentRepository.save(existingAgent);
+        // Flush so the returned (and cached) representation carries the incremented version
+        Agent updatedAgent = agentRepository.saveAndFlush(existingAgent);
         return convertToDTO(updatedAgent);
     }
     
+    // Deleting an agent deletes their properties first, each the way a single property delete
+    // does, so the change feed, the search index and the image files all see the deletions
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AGENTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AGENT_LIST, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PROPERTIES, allEntries = true)
+    })
+    @Transactional
     public void deleteAgent(Long id) {
         if (!agentRepository.existsById(id)) {
             throw new EntityNotFoundException("Agent not found with ID: " + id);
         }
+        for (Long propertyId : propertyRepository.findIdsByAgentId(id)) {
+            propertyService.deleteProperty(propertyId);
+        }
         agentRepository.deleteById(id);
     }
     
     /**
      * Find agents by email (exact match)
      */
+    @Transactional(readOnly = true)
     public List<AgentDTO> findAgentsByEmail(String email) {
-        return agentRepository.findByEmail(email)
-                .map(agent -> {
-                    List<Agent> agents = new ArrayList<>();
-                    agents.add(agent);
-                    return agents;
-                })
-                .orElse(Collections.emptyList())
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return agentRepository.findDTOByEmail(email)
+                .map(Collections::singletonList)
+                .orElse(Collections.emptyList());
     }
     
     // DTO to Entity conversion
@@ -106,6 +146,7 @@ public class AgentService {
         agentDTO.setName(agent.getName());
         agentDTO.setEmail(agent.getEmail());
         agentDTO.setPhone(agent.getPhone());
+        agentDTO.setVersion(agent.getVersion());
         return agentDTO;
     }
 }
@@ -0,0 +1,78 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.model.ChangeFeedHead;
+import com.mazlogic.properties.model.ChangeRecord;
+import com.mazlogic.properties.repository.ChangeRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Assigns feed offsets to committed change records. A pass locks the change_feed_head row,
+ * so passes (also those of other instances) take turns, and only sees records whose
+ * transaction has committed: a record committing after a pass is numbered by a later one,
+ * with a higher offset. Writers therefore append without any lock of their own.
+ */
+@Component
+public class ChangeFeedSequencer {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ChangeRecordRepository changeRecordRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public ChangeFeedSequencer(ChangeRecordRepository changeRecordRepository) {
+        this.changeRecordRepository = changeRecordRepository;
+    }
+
+    /**
+     * Numbers every committed record that has no offset yet and returns the last offset of
+     * the feed. Runs in its own transaction so it also commits when called from an
+     * after-commit callback.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long sequence() {
+        // Most passes find nothing to number; they skip the lock
+        if (!changeRecordRepository.existsByFeedOffsetIsNull()) {
+            return changeRecordRepository.findLastOffset();
+        }
+        ChangeFeedHead head = lockHead();
+        long offset = head.getLastOffset();
+        List<ChangeRecord> records;
+        do {
+            // Queried under the lock, so nothing another pass has numbered is numbered again
+            records = changeRecordRepository.findUnsequenced(PageRequest.of(0, BATCH_SIZE));
+            for (ChangeRecord record : records) {
+                record.setFeedOffset(++offset);
+            }
+            changeRecordRepository.flush();
+            records.forEach(entityManager::detach);
+        } while (records.size() == BATCH_SIZE);
+        head.setLastOffset(offset);
+        return offset;
+    }
+
+    private ChangeFeedHead lockHead() {
+        ChangeFeedHead head = entityManager.find(ChangeFeedHead.class, ChangeFeedHead.ID, LockModeType.PESSIMISTIC_WRITE);
+        if (head == null) {
+            // A missing row cannot be locked, so passes racing to create it must not fail on the
+            // key: the losers wait for the winner's row and then lock it like any other pass
+            entityManager.createNativeQuery("INSERT INTO change_feed_head (id, last_offset) "
+                            + "SELECT :id, COALESCE(MAX(feed_offset), 0) FROM change_records ON CONFLICT DO NOTHING")
+                    .setParameter("id", ChangeFeedHead.ID)
+                    .executeUpdate();
+            head = entityManager.find(ChangeFeedHead.class, ChangeFeedHead.ID, LockModeType.PESSIMISTIC_WRITE);
+        }
+        return head;
+    }
+}
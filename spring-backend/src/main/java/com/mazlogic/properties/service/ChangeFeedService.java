@@ -0,0 +1,463 @@
+package com.mazlogic.properties.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mazlogic.properties.config.WebAsyncConfig;
+import com.mazlogic.properties.event.ImageChangedEvent;
+import com.mazlogic.properties.event.PropertiesImportedEvent;
+import com.mazlogic.properties.event.PropertyChangedEvent;
+import com.mazlogic.properties.event.PropertyChangedEvent.ChangeType;
+import com.mazlogic.properties.model.ChangeRecord;
+import com.mazlogic.properties.model.ChangeRecord.EntityType;
+import com.mazlogic.properties.model.dto.ChangeFeedDTO;
+import com.mazlogic.properties.model.dto.ChangeRecordDTO;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.repository.ChangeRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Change feed of property and image writes, backed by a transactional outbox. Writers
+ * publish their usual events; just before their transaction commits the changes are
+ * appended to {@code change_records} in the same transaction, and once it has committed
+ * ChangeFeedSequencer numbers them in commit order. Consumers read from an offset,
+ * optionally long-polling until something new commits, or subscribe to a Server-Sent
+ * Events stream that pushes each change as it commits. Records older than the retention
+ * window are pruned; consumers further behind than that have to reload.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    // How long a committing writer waits for a sequencing pass already running on another
+    // thread before leaving its records to that pass. It holds its connection meanwhile.
+    private static final long SEQUENCE_WAIT_MILLIS = 500;
+
+    private final ChangeRecordRepository changeRecordRepository;
+    private final ChangeFeedSequencer changeFeedSequencer;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor executor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Long-polling consumers, woken whenever a sequencing pass finds the feed has grown,
+    // including by commits on other instances (seen at the next scheduled pass)
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    // Open event streams. They hold no thread while idle (Servlet async).
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean deliveryScheduled = new AtomicBoolean();
+    // A lock rather than synchronized: a delivery reads from the database, which would pin a virtual thread
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+    // One sequencing pass at a time per instance; requests arriving meanwhile are covered by
+    // the pass that is running
+    private final ReentrantLock sequenceLock = new ReentrantLock();
+    private final AtomicBoolean sequenceRequested = new AtomicBoolean();
+    private final AtomicLong lastOffset = new AtomicLong();
+
+    @Value("${application.changes.default-limit:100}")
+    private int defaultLimit;
+
+    @Value("${application.changes.max-limit:1000}")
+    private int maxLimit;
+
+    @Value("${application.changes.max-wait:PT30S}")
+    private Duration maxWait;
+
+    // Streams are closed after this long; EventSource clients reconnect and resume from Last-Event-ID
+    @Value("${application.changes.stream-timeout:PT5M}")
+    private Duration streamTimeout;
+
+    @Value("${application.changes.retention:P7D}")
+    private Duration retention;
+
+    @Autowired
+    public ChangeFeedService(
+            ChangeRecordRepository changeRecordRepository,
+            ChangeFeedSequencer changeFeedSequencer,
+            ObjectMapper objectMapper,
+            @Qualifier(WebAsyncConfig.WEB_ASYNC_EXECUTOR) TaskExecutor executor) {
+        this.changeRecordRepository = changeRecordRepository;
+        this.changeFeedSequencer = changeFeedSequencer;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+    }
+
+    /**
+     * Numbers records left behind by writers that stopped before doing so themselves (e.g. an
+     * instance that went down right after committing), and notices other instances' changes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${application.changes.sequence-interval:PT1S}")
+    public void sequence() {
+        sequence(0);
+    }
+
+    /**
+     * Deletes changes older than the retention window. The head keeps the last offset, so
+     * offsets are never reused.
+     */
+    @Scheduled(fixedDelayString = "${application.changes.prune-interval:PT1H}")
+    @Transactional
+    public void prune() {
+        int deleted = changeRecordRepository.deleteSequencedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Pruned {} change records older than {}", deleted, retention);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        append(Collections.singletonList(record(EntityType.PROPERTY, event.getChangeType(),
+                event.getPropertyId(), event.getPropertyId(), event.getProperty())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPropertiesImported(PropertiesImportedEvent event) {
+        List<ChangeRecord> records = new ArrayList<>();
+        for (PropertyDTO property : event.getProperties()) {
+            records.add(record(EntityType.PROPERTY, ChangeType.CREATED, property.getId(), property.getId(), property));
+        }
+        append(records);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onImageChanged(ImageChangedEvent event) {
+        append(Collections.singletonList(record(EntityType.IMAGE, event.getChangeType(),
+                event.getImageId(), event.getPropertyId(), event.getImage())));
+    }
+
+    /**
+     * Changes committed after {@code after}, oldest first. Read from the primary, like every
+     * read of the feed, so an offset handed out once is never missing later.
+     */
+    public ChangeFeedDTO getChanges(long after, Integer limit) {
+        return read(after, limit(limit));
+    }
+
+    /**
+     * Offset of the most recent committed change, for consumers that only want what follows.
+     */
+    public long getLastOffset() {
+        return changeRecordRepository.findLastOffset();
+    }
+
+    /**
+     * Like {@link #getChanges}, but when nothing newer has been committed yet the result is
+     * held back until a change commits or {@code wait} (capped at the configured maximum)
+     * elapses, in which case it is empty.
+     */
+    public DeferredResult<ChangeFeedDTO> pollChanges(long after, Integer limit, Duration wait) {
+        int size = limit(limit);
+        Duration timeout = wait.compareTo(maxWait) > 0 ? maxWait : wait;
+        DeferredResult<ChangeFeedDTO> result = new DeferredResult<>(timeout.toMillis(),
+                () -> new ChangeFeedDTO(new ArrayList<>(), after, false));
+        // Register before reading, so a commit in between still wakes this poll
+        Waiter waiter = new Waiter(after, size, result);
+        if (!timeout.isZero()) {
+            waiters.add(waiter);
+            result.onCompletion(() -> waiters.remove(waiter));
+        }
+        ChangeFeedDTO changes = read(after, size);
+        if (!changes.getChanges().isEmpty() || timeout.isZero()) {
+            result.setResult(changes);
+        }
+        return result;
+    }
+
+    /**
+     * Opens an event stream of changes after {@code after}, or from now on when it is null.
+     * Each change is sent as a {@code change} event whose id is its offset; a first
+     * {@code ready} event carries the starting offset, so a reconnecting EventSource
+     * resumes where it left off even if nothing had changed.
+     */
+    public SseEmitter subscribe(Long after) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, after != null ? after : changeRecordRepository.findLastOffset());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        if (subscriber.send(SseEmitter.event().id(String.valueOf(subscriber.offset)).name("ready").data(""))) {
+            subscribers.add(subscriber);
+            // Catch up on whatever was committed after the requested offset
+            scheduleDelivery();
+        }
+        return emitter;
+    }
+
+    // Keeps idle streams open through proxies and notices clients that went away
+    @Scheduled(fixedDelayString = "${application.changes.heartbeat-interval:PT20S}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            // A stream that is still writing needs no heartbeat
+            if (!subscriber.isSending()) {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private ChangeFeedDTO read(long after, int size) {
+        List<ChangeRecord> records = changeRecordRepository.findAfter(after, PageRequest.of(0, size + 1));
+        boolean hasMore = records.size() > size;
+        List<ChangeRecordDTO> changes = records.stream()
+                .limit(size)
+                .map(ChangeFeedService::convertToDTO)
+                .collect(Collectors.toList());
+        long nextOffset = changes.isEmpty() ? after : changes.get(changes.size() - 1).getOffset();
+        return new ChangeFeedDTO(changes, nextOffset, hasMore);
+    }
+
+    private void append(List<ChangeRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        for (ChangeRecord record : records) {
+            entityManager.persist(record);
+        }
+        // Flushed through the repository so conflicts surface as Spring's optimistic locking failure
+        changeRecordRepository.flush();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sequence(SEQUENCE_WAIT_MILLIS);
+            }
+        });
+    }
+
+    // Whichever thread holds the lock repeats its pass until no request is left, so a request
+    // that cannot wait for the lock is never lost
+    private void sequence(long waitMillis) {
+        sequenceRequested.set(true);
+        long offset = -1;
+        try {
+            while (sequenceRequested.get() && sequenceLock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+                try {
+                    while (sequenceRequested.getAndSet(false)) {
+                        offset = changeFeedSequencer.sequence();
+                    }
+                } finally {
+                    sequenceLock.unlock();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            // The writes have committed; the scheduled pass numbers them
+            log.warn("Could not sequence committed changes", ex);
+        }
+        if (offset > lastOffset.getAndAccumulate(offset, Math::max)) {
+            wakeWaiters();
+        }
+    }
+
+    // One delivery pass covers any number of commits that arrive while it is pending
+    private void wakeWaiters() {
+        if (waiters.isEmpty() && subscribers.isEmpty()) {
+            return;
+        }
+        scheduleDelivery();
+    }
+
+    private void scheduleDelivery() {
+        if (!deliveryScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::deliver);
+        } catch (TaskRejectedException ex) {
+            // Pending polls time out and are repeated by their consumers; streams catch up
+            // with the next commit
+            deliveryScheduled.set(false);
+        }
+    }
+
+    // One pass at a time, so every stream receives its changes in order. Consumers at the
+    // same offset (the common case) share one read. A pass only queues changes: each stream
+    // writes them on its own task, so a slow client holds up nobody else.
+    private void deliver() {
+        deliveryLock.lock();
+        try {
+            deliveryScheduled.set(false);
+            Map<String, ChangeFeedDTO> reads = new HashMap<>();
+            for (Waiter waiter : waiters) {
+                ChangeFeedDTO changes = reads.computeIfAbsent(waiter.after + ":" + waiter.size,
+                        key -> read(waiter.after, waiter.size));
+                if (!changes.getChanges().isEmpty()) {
+                    waiter.result.setResult(changes);
+                }
+            }
+            for (Subscriber subscriber : subscribers) {
+                // At most one page queued per stream; a stream still writing asks for the next
+                // page once it is done
+                if (subscriber.isSending()) {
+                    continue;
+                }
+                long after = subscriber.offset;
+                subscriber.enqueue(reads.computeIfAbsent(after + ":" + maxLimit, key -> read(after, maxLimit)));
+            }
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    private int limit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultLimit;
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    private ChangeRecord record(EntityType entityType, ChangeType changeType, Long entityId, Long propertyId,
+                                Object payload) {
+        ChangeRecord record = new ChangeRecord();
+        record.setEntityType(entityType);
+        record.setChangeType(changeType);
+        record.setEntityId(entityId);
+        record.setPropertyId(propertyId);
+        record.setCreatedAt(Instant.now());
+        if (payload != null) {
+            try {
+                record.setPayload(objectMapper.writeValueAsString(payload));
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Could not serialise change of " + entityType + " " + entityId, ex);
+            }
+        }
+        return record;
+    }
+
+    private static ChangeRecordDTO convertToDTO(ChangeRecord record) {
+        return new ChangeRecordDTO(record.getFeedOffset(), record.getEntityType(), record.getChangeType(),
+                record.getEntityId(), record.getPropertyId(), record.getCreatedAt(), record.getPayload());
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        // Events waiting to be written by this stream's own task
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Offset of the last change queued
+        private volatile long offset;
+
+        Subscriber(SseEmitter emitter, long offset) {
+            this.emitter = emitter;
+            this.offset = offset;
+        }
+
+        boolean isSending() {
+            return sending.get();
+        }
+
+        void enqueue(ChangeFeedDTO changes) {
+            for (ChangeRecordDTO change : changes.getChanges()) {
+                if (change.getOffset() > offset) {
+                    queue.add(SseEmitter.event()
+                            .id(String.valueOf(change.getOffset()))
+                            .name("change")
+                            .data(change, MediaType.APPLICATION_JSON));
+                    offset = change.getOffset();
+                }
+            }
+            startSending();
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            queue.add(event);
+            startSending();
+        }
+
+        private void startSending() {
+            if (queue.isEmpty() || !sending.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this::sendQueued);
+            } catch (TaskRejectedException ex) {
+                // Written by the next delivery or heartbeat
+                sending.set(false);
+            }
+        }
+
+        private void sendQueued() {
+            SseEmitter.SseEventBuilder event;
+            while ((event = queue.poll()) != null) {
+                if (!send(event)) {
+                    // Gone; stays marked as sending so nothing is queued for it again
+                    queue.clear();
+                    return;
+                }
+            }
+            sending.set(false);
+            if (!queue.isEmpty()) {
+                startSending();
+            } else if (offset < lastOffset.get()) {
+                // Behind the feed, e.g. catching up after a reconnect: fetch the next page
+                scheduleDelivery();
+            }
+        }
+
+        boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                // Disconnected or already completed
+                subscribers.remove(this);
+                emitter.completeWithError(ex);
+                return false;
+            }
+        }
+    }
+
+    private static class Waiter {
+
+        private final long after;
+        private final int size;
+        private final DeferredResult<ChangeFeedDTO> result;
+
+        Waiter(long after, int size, DeferredResult<ChangeFeedDTO> result) {
+            this.after = after;
+            this.size = size;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.model.dto.AgentDTO;
+import com.mazlogic.properties.model.dto.PageResponse;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.repository.AgentVersion;
+import com.mazlogic.properties.repository.PropertyVersion;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Strong ETags derived from entity versions.
+ *
+ * Each tag can be computed either from the cheap version lookups in the repositories (to
+ * answer If-None-Match without loading anything) or from the rendered DTOs (to tag a full
+ * response); both forms produce identical values for the same state.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String property(PropertyVersion version) {
+        return quote("p" + version.getId() + "." + version.getVersion() + "." + version.getAgentVersion());
+    }
+
+    public static String property(PropertyDTO property) {
+        return property(toVersion(property));
+    }
+
+    public static String agent(Long id, Long version) {
+        return quote("a" + id + "." + version);
+    }
+
+    public static String agent(AgentDTO agent) {
+        return agent(agent.getId(), agent.getVersion());
+    }
+
+    public static String propertyPage(List<PropertyVersion> versions, boolean hasNext) {
+        String state = versions.stream()
+                .map(version -> version.getId() + "." + version.getVersion() + "." + version.getAgentVersion())
+                .collect(Collectors.joining(";"));
+        return quote("pp" + digest(state + "|" + hasNext));
+    }
+
+    public static String propertyPage(PageResponse<PropertyDTO> page) {
+        List<PropertyVersion> versions = page.getContent().stream()
+                .map(ETags::toVersion)
+                .collect(Collectors.toList());
+        return propertyPage(versions, page.isHasNext());
+    }
+
+    public static String agentList(List<AgentVersion> versions) {
+        String state = versions.stream()
+                .map(version -> version.getId() + "." + version.getVersion())
+                .collect(Collectors.joining(";"));
+        return quote("al" + digest(state));
+    }
+
+    public static String agentListFromDTOs(List<AgentDTO> agents) {
+        String state = agents.stream()
+                .map(agent -> agent.getId() + "." + agent.getVersion())
+                .collect(Collectors.joining(";"));
+        return quote("al" + digest(state));
+    }
+
+    private static PropertyVersion toVersion(PropertyDTO property) {
+        return new PropertyVersion(property.getId(), property.getVersion(),
+                property.getAgent() != null ? property.getAgent().getVersion() : null);
+    }
+
+    private static String digest(String state) {
+        return DigestUtils.md5DigestAsHex(state.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+}
@@ -1,108 +1,300 @@
 package com.mazlogic.properties.service;
 
+import com.mazlogic.properties.exception.UploadTooLargeException;
+import com.mazlogic.properties.model.dto.PageResponse;
+import com.mazlogic.properties.model.dto.StorageStatsDTO;
+import com.mazlogic.properties.storage.ImageStore;
+import com.mazlogic.properties.storage.ShardStats;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.annotation.PostConstruct;
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
+/**
+ * Content-addressed image storage on top of the configured ImageStore backend. Every call is
+ * timed as storage.calls, which covers the backend's latency.
+ */
 @Service
+@Timed(value = "storage.calls", description = "Image storage latency")
 public class FileStorageService {
 
-    @Value("${application.storage.image-directory}")
-    private String uploadDirectory;
+    // First-level shard prefixes ("00" to "ff") that statistics are sampled from
+    private static final int SHARD_COUNT = 256;
     
-    private Path fileStorageLocation;
+    private static final int MAX_LIST_SIZE = 1000;
     
-    @PostConstruct
-    public void init() {
-        this.fileStorageLocation = Paths.get(uploadDirectory)
-                .toAbsolutePath().normalize();
-        
-        System.out.println("FileStorageService initialized with directory: " + this.fileStorageLocation);
-                
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+    
+    private final ImageStore imageStore;
+    
+    private final MeterRegistry meterRegistry;
+    
+    // Applies to streamed uploads too, which bypass the multipart resolver
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxUploadSize;
+    
+    @Autowired
+    public FileStorageService(ImageStore imageStore, MeterRegistry meterRegistry) {
+        this.imageStore = imageStore;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    public StoredFile storeFile(MultipartFile file) {
+        try (InputStream content = file.getInputStream()) {
+            return store(content, file.getOriginalFilename());
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read uploaded file " + file.getOriginalFilename(), ex);
+        }
+    }
+    
+    /**
+     * Streams the content into the content-addressed store in a single pass, computing its
+     * size and SHA-256 on the way. The file name is derived from the digest
+     * ({@code ab/cd/abcd...ef.jpg}), so identical uploads share one file. The data is written
+     * to a temporary file first and only published once complete, so a partially written
+     * file is never visible.
+     *
+     * @throws UploadTooLargeException when the content exceeds the maximum upload size
+     */
+    public StoredFile store(InputStream content, String originalFileName) {
+        Path tempFile = null;
         try {
-            Files.createDirectories(this.fileStorageLocation);
-            System.out.println("File storage directory created or verified: " + this.fileStorageLocation);
-            System.out.println("Directory exists: " + Files.exists(this.fileStorageLocation));
-            System.out.println("Directory is writable: " + Files.isWritable(this.fileStorageLocation));
+            tempFile = imageStore.createTempFile();
+            HashingInputStream source = new HashingInputStream(content, sha256(), maxUploadSize.toBytes());
+            // A plain read/write loop: Channels.newChannel and FileChannel.transferFrom both hold a
+            // monitor while waiting for the client, which would pin a virtual thread's carrier
+            try (OutputStream target = Files.newOutputStream(tempFile, StandardOpenOption.WRITE)) {
+                source.transferTo(target);
+            }
+            String digest = source.getHexDigest();
+            String fileName = contentAddressedName(digest, originalFileName);
+            // Same bytes, same name: an existing blob is reused as it is
+            imageStore.putIfAbsent(fileName, tempFile);
+            uploadSize().record(source.getSize());
+            return new StoredFile(fileName, source.getSize(), digest);
+        } catch (UploadTooLargeException ex) {
+            Counter.builder("images.upload.rejected")
+                    .description("Uploads rejected for exceeding the maximum upload size")
+                    .register(meterRegistry)
+                    .increment();
+            throw ex;
         } catch (IOException ex) {
-            System.err.println("Failed to create directory: " + this.fileStorageLocation);
-            ex.printStackTrace();
-            throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        } finally {
+            deleteQuietly(tempFile);
         }
     }
     
-    public String storeFile(MultipartFile file) {
-        // Normalize file name
-        String originalFileName = file.getOriginalFilename();
+    // Buckets up to the upload limit, so the histogram shows how close uploads get to it
+    private DistributionSummary uploadSize() {
+        return DistributionSummary.builder("images.upload.size")
+                .description("Size of stored uploads")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .maximumExpectedValue((double) maxUploadSize.toBytes())
+                .register(meterRegistry);
+    }
+    
+    // Two levels of 256 shard directories keep directory sizes small for any realistic count.
+    // The extension comes from the client, so anything but a short alphanumeric one is dropped
+    static String contentAddressedName(String digest, String originalFileName) {
         String fileExtension = "";
-        
         if (originalFileName != null && originalFileName.contains(".")) {
-            fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
+            String extension = originalFileName.substring(originalFileName.lastIndexOf(".") + 1).toLowerCase(Locale.ROOT);
+            if (EXTENSION.matcher(extension).matches()) {
+                fileExtension = "." + extension;
+            }
         }
-        
-        // Generate unique filename
-        String fileName = UUID.randomUUID().toString() + fileExtension;
-        
-        System.out.println("Storing file with original name: " + originalFileName);
-        System.out.println("Generated file name: " + fileName);
-        System.out.println("File size: " + file.getSize() + " bytes");
-        System.out.println("File content type: " + file.getContentType());
-        System.out.println("Target directory: " + this.fileStorageLocation.toString());
-        
+        return digest.substring(0, 2) + "/" + digest.substring(2, 4) + "/" + digest + fileExtension;
+    }
+    
+    /**
+     * Writes generated content (such as an image variant) under the given file name,
+     * replacing any previous file atomically.
+     */
+    public void storeBytes(String fileName, byte[] content) {
         try {
-            // Copy file to the target location
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            System.out.println("Saving file to: " + targetLocation.toString());
-            
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            
-            // Verify file was saved
-            boolean fileExists = Files.exists(targetLocation);
-            System.out.println("File saved successfully: " + fileExists);
-            if (fileExists) {
-                System.out.println("Saved file size: " + Files.size(targetLocation) + " bytes");
-            }
-            
-            return fileName;
+            imageStore.put(fileName, content);
         } catch (IOException ex) {
-            System.err.println("Failed to store file: " + ex.getMessage());
-            ex.printStackTrace();
             throw new RuntimeException("Could not store file " + fileName + ". Please try again!", ex);
         }
     }
     
-    public Resource loadFileAsResource(String fileName) {
+    /**
+     * @throws java.nio.file.NoSuchFileException when the file does not exist
+     */
+    public InputStream openFile(String fileName) throws IOException {
+        return imageStore.open(fileName);
+    }
+    
+    /**
+     * Opens the bytes from {@code start} up to and including {@code end}.
+     */
+    public InputStream openFile(String fileName, long start, long end) throws IOException {
+        return imageStore.open(fileName, start, end);
+    }
+    
+    /**
+     * @throws java.nio.file.NoSuchFileException when the file does not exist
+     */
+    public long fileSize(String fileName) throws IOException {
+        return imageStore.size(fileName);
+    }
+    
+    /**
+     * The local file behind the name, or null when the backend is not a local file system.
+     */
+    public Path localPath(String fileName) {
+        return imageStore.localPath(fileName);
+    }
+    
+    public void deleteFile(String fileName) {
+        try {
+            imageStore.delete(fileName);
+        } catch (IOException ex) {
+            throw new RuntimeException("Error deleting file: " + fileName, ex);
+        }
+    }
+    
+    /**
+     * Pages through the stored file names in key order; the cursor is the last name of the
+     * previous page.
+     */
+    public PageResponse<String> listFiles(String cursor, Integer size) {
+        int limit = size == null ? 100 : Math.max(1, Math.min(size, MAX_LIST_SIZE));
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists()) {
-                return resource;
-            } else {
-                throw new RuntimeException("File not found: " + fileName);
+            // One extra key tells whether another page follows
+            List<String> keys = imageStore.list(cursor, limit + 1);
+            boolean hasNext = keys.size() > limit;
+            List<String> content = hasNext ? keys.subList(0, limit) : keys;
+            String nextCursor = hasNext ? content.get(content.size() - 1) : null;
+            return new PageResponse<>(new ArrayList<>(content), content.size(), nextCursor, hasNext);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not list stored files", ex);
+        }
+    }
+    
+    /**
+     * Estimates the number and total size of stored files by scanning a random sample of
+     * first-level shards and extrapolating, instead of listing the whole store. Files from
+     * before content addressing live outside the shards and are not counted.
+     */
+    public StorageStatsDTO sampleStatistics(int sampleShards) {
+        int sampled = Math.max(1, Math.min(sampleShards, SHARD_COUNT));
+        List<Integer> shards = new ArrayList<>();
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            shards.add(shard);
+        }
+        Collections.shuffle(shards);
+        
+        long fileCount = 0;
+        long totalBytes = 0;
+        try {
+            for (int shard : shards.subList(0, sampled)) {
+                ShardStats stats = imageStore.scanShard(String.format("%02x/", shard));
+                fileCount += stats.getFileCount();
+                totalBytes += stats.getTotalBytes();
             }
-        } catch (MalformedURLException ex) {
-            throw new RuntimeException("File not found: " + fileName, ex);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read storage statistics", ex);
         }
+        
+        StorageStatsDTO dto = new StorageStatsDTO();
+        dto.setBackend(imageStore.getName());
+        dto.setLocation(imageStore.getLocation());
+        dto.setSampledShards(sampled);
+        dto.setTotalShards(SHARD_COUNT);
+        dto.setSampledFiles(fileCount);
+        dto.setSampledBytes(totalBytes);
+        dto.setEstimatedFiles(fileCount * SHARD_COUNT / sampled);
+        dto.setEstimatedBytes(totalBytes * SHARD_COUNT / sampled);
+        return dto;
     }
     
-    public void deleteFile(String fileName) {
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
         try {
-            Path file = this.fileStorageLocation.resolve(fileName);
             Files.deleteIfExists(file);
         } catch (IOException ex) {
-            throw new RuntimeException("Error deleting file: " + fileName, ex);
+            // Leftover temp files are harmless and ignored by the image handler
+        }
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+    
+    /**
+     * Feeds every byte read through a digest and enforces the size limit, so hashing and
+     * the size check need no second pass over the file.
+     */
+    private static class HashingInputStream extends FilterInputStream {
+        
+        private final MessageDigest digest;
+        private final long maxSize;
+        private long size;
+        
+        HashingInputStream(InputStream delegate, MessageDigest digest, long maxSize) {
+            super(delegate);
+            this.digest = digest;
+            this.maxSize = maxSize;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read > 0) {
+                size += read;
+                if (size > maxSize) {
+                    throw new UploadTooLargeException(maxSize);
+                }
+                digest.update(buffer, offset, read);
+            }
+            return read;
+        }
+        
+        long getSize() {
+            return size;
+        }
+        
+        String getHexDigest() {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
         }
     }
 }
@@ -0,0 +1,170 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.config.ImageProcessingConfig;
+import com.mazlogic.properties.event.ImageUploadedEvent;
+import com.mazlogic.properties.model.ImageStatus;
+import com.mazlogic.properties.model.ImageVariant;
+import com.mazlogic.properties.model.PropertyImage;
+import com.mazlogic.properties.repository.PropertyImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs variant generation for uploaded images on a bounded worker pool, outside the
+ * upload request and its transaction. The PENDING status in the database is the
+ * durable job record: images still pending at startup, or whose job the full pool
+ * rejected, are submitted again by a periodic sweep.
+ */
+@Service
+public class ImageProcessingQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageProcessingQueue.class);
+
+    private static final int UPDATE_ATTEMPTS = 3;
+
+    private final PropertyImageRepository propertyImageRepository;
+    private final PropertyImageService propertyImageService;
+    private final ImageProcessingService imageProcessingService;
+    private final TaskExecutor executor;
+    // Images submitted and not yet done, so a sweep does not queue them a second time
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ImageProcessingQueue(
+            PropertyImageRepository propertyImageRepository,
+            PropertyImageService propertyImageService,
+            ImageProcessingService imageProcessingService,
+            @Qualifier(ImageProcessingConfig.IMAGE_PROCESSING_EXECUTOR) TaskExecutor executor) {
+        this.propertyImageRepository = propertyImageRepository;
+        this.propertyImageService = propertyImageService;
+        this.imageProcessingService = imageProcessingService;
+        this.executor = executor;
+    }
+
+    @TransactionalEventListener
+    public void onImageUploaded(ImageUploadedEvent event) {
+        submit(event.getImageId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPending() {
+        List<Long> pending = propertyImageRepository.findIdsByStatus(ImageStatus.PENDING);
+        if (!pending.isEmpty()) {
+            log.info("Resubmitting {} images left pending by the previous run", pending.size());
+            submitAll(pending);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${application.images.processing.sweep-interval:PT1M}",
+            fixedDelayString = "${application.images.processing.sweep-interval:PT1M}")
+    public void sweepPending() {
+        List<Long> pending = propertyImageRepository.findIdsByStatus(ImageStatus.PENDING).stream()
+                .filter(imageId -> !inFlight.contains(imageId))
+                .toList();
+        if (!pending.isEmpty()) {
+            log.info("Resubmitting {} pending images", pending.size());
+            submitAll(pending);
+        }
+    }
+
+    // Stops at the first rejection; the rest wait for the next sweep
+    private void submitAll(List<Long> imageIds) {
+        for (Long imageId : imageIds) {
+            if (!submit(imageId)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Queues the image for processing unless it is already queued. Returns false when the
+     * pool is full; the image then stays PENDING for the next sweep.
+     */
+    public boolean submit(Long imageId) {
+        if (!inFlight.add(imageId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(imageId);
+                } finally {
+                    inFlight.remove(imageId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            inFlight.remove(imageId);
+            log.debug("Processing queue is full; image {} stays pending", imageId);
+            return false;
+        }
+    }
+
+    /**
+     * Decodes and downscales without holding a transaction; only the final status update
+     * touches the database again.
+     */
+    void process(Long imageId) {
+        PropertyImage image = propertyImageRepository.findOnPrimaryById(imageId).orElse(null);
+        if (image == null || image.getStatus() != ImageStatus.PENDING) {
+            return;
+        }
+        try {
+            if (!reuseVariants(image)) {
+                imageProcessingService.createVariants(image);
+            }
+        } catch (Exception e) {
+            log.warn("Processing image {} ({}) failed", imageId, image.getFileName(), e);
+            retryOnConflict(() -> propertyImageService.failProcessing(imageId));
+            return;
+        }
+        retryOnConflict(() -> propertyImageService.completeProcessing(image));
+    }
+
+    // Recording the outcome bumps the property version, which can race with other writers
+    private static void retryOnConflict(Runnable update) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                update.run();
+                return;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt == UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Identical content was already processed for another image; its variants are shared
+    private boolean reuseVariants(PropertyImage image) {
+        if (image.getContentHash() == null) {
+            return false;
+        }
+        return propertyImageRepository
+                .findFirstByContentHashAndStatusOrderByIdAsc(image.getContentHash(), ImageStatus.READY)
+                .filter(processed -> processed.getFileName().equals(image.getFileName()))
+                .map(processed -> {
+                    image.setWidth(processed.getWidth());
+                    image.setHeight(processed.getHeight());
+                    for (ImageVariant variant : ImageVariant.values()) {
+                        image.setVariantFileName(variant, processed.getVariantFileName(variant));
+                    }
+                    return true;
+                })
+                .orElse(false);
+    }
+}
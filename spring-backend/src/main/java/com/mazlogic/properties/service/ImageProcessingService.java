@@ -0,0 +1,124 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.model.ImageVariant;
+import com.mazlogic.properties.model.PropertyImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Generates the downscaled variants of an uploaded image with the JDK's ImageIO codecs.
+ *
+ * Images that ImageIO cannot decode (e.g. WebP or HEIC) fail processing and keep only their
+ * original file; variants that would not be smaller than the original are skipped, and
+ * clients fall back to the original URL in both cases. Runs on the ImageProcessingQueue
+ * workers, never on a request thread.
+ */
+@Service
+public class ImageProcessingService {
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${application.images.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Autowired
+    public ImageProcessingService(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    /**
+     * Reads the stored original of the image, records its dimensions and writes every
+     * variant next to it, updating the variant file names on the entity.
+     */
+    public void createVariants(PropertyImage image) throws IOException {
+        BufferedImage source;
+        try (InputStream input = fileStorageService.openFile(image.getFileName())) {
+            source = ImageIO.read(input);
+        }
+        if (source == null) {
+            throw new IOException("No ImageIO decoder for " + image.getFileName() + " (" + image.getContentType() + ")");
+        }
+        image.setWidth(source.getWidth());
+        image.setHeight(source.getHeight());
+
+        boolean alpha = source.getColorModel().hasAlpha();
+        String extension = alpha ? ".png" : ".jpg";
+        String baseName = baseName(image.getFileName());
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (Math.max(source.getWidth(), source.getHeight()) <= variant.getMaxEdge()) {
+                continue;
+            }
+            BufferedImage scaled = scale(source, variant.getMaxEdge(), alpha);
+            String variantFileName = baseName + "-" + variant.getSuffix() + extension;
+            fileStorageService.storeBytes(variantFileName, alpha ? encodePng(scaled) : encodeJpeg(scaled));
+            image.setVariantFileName(variant, variantFileName);
+        }
+    }
+
+    /**
+     * Downscales in successive halving steps with bilinear filtering, which is much closer
+     * to an area-averaged result than one large bilinear step and still cheap.
+     */
+    static BufferedImage scale(BufferedImage source, int maxEdge, boolean alpha) {
+        double ratio = (double) maxEdge / Math.max(source.getWidth(), source.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(width / 2, targetWidth);
+            height = Math.max(height / 2, targetHeight);
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D graphics = step.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+
+    private static String baseName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+}
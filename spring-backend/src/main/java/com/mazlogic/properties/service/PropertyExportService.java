@@ -0,0 +1,132 @@
+package com.mazlogic.properties.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mazlogic.properties.model.dto.PropertyExportRow;
+import com.mazlogic.properties.repository.ChangeRecordRepository;
+import com.mazlogic.properties.repository.PropertyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streaming export of all listings, or of those changed since a timestamp, as NDJSON or CSV.
+ * Rows are read through a forward-only cursor as flat projections and written as they
+ * arrive, so memory use does not depend on the size of the table. Incremental exports end
+ * with tombstones for the listings deleted since, taken from the change records; these are
+ * kept for application.changes.retention, so an older {@code since} is refused and the
+ * consumer has to start over with a full export.
+ */
+@Service
+public class PropertyExportService {
+
+    private final PropertyRepository propertyRepository;
+    private final ChangeRecordRepository changeRecordRepository;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter csvWriter;
+
+    // Rows changed shortly before an export may commit after it has read past them
+    @Value("${application.export.watermark-lag:PT1M}")
+    private Duration watermarkLag;
+
+    @Value("${application.changes.retention:P7D}")
+    private Duration changeRetention;
+
+    @Autowired
+    public PropertyExportService(PropertyRepository propertyRepository, ChangeRecordRepository changeRecordRepository,
+                                 ObjectMapper objectMapper) {
+        this.propertyRepository = propertyRepository;
+        this.changeRecordRepository = changeRecordRepository;
+        this.ndjsonWriter = objectMapper.writerFor(PropertyExportRow.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        CsvMapper csvMapper = new CsvMapper();
+        csvMapper.registerModule(new JavaTimeModule());
+        csvMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.csvWriter = csvMapper.writer(csvMapper.schemaFor(PropertyExportRow.class).withHeader())
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public MediaType mediaType(String format) {
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return PropertyImportService.NDJSON;
+        }
+        if ("csv".equalsIgnoreCase(format)) {
+            return PropertyImportService.CSV;
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+
+    /**
+     * Rejects a {@code since} from before the oldest change records that may have been
+     * pruned, as the export could then no longer list every deletion after it.
+     */
+    public void checkSince(Instant since) {
+        if (since != null && since.isBefore(Instant.now().minus(changeRetention))) {
+            throw new IllegalArgumentException("Deletions are only kept for " + changeRetention
+                    + "; export everything without since instead");
+        }
+    }
+
+    /**
+     * The {@code since} value for the next incremental export. It lags the current time so
+     * that rows committed while this export runs are picked up again; consumers upsert by id.
+     */
+    public Instant watermark() {
+        return Instant.now().minus(watermarkLag);
+    }
+
+    /**
+     * Writes the export to {@code out}, ordered by id, or by change time when {@code since}
+     * is given, followed by the tombstones of listings deleted after it. Returns the number
+     * of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long export(Instant since, MediaType format, OutputStream out) throws IOException {
+        boolean ndjson = PropertyImportService.NDJSON.isCompatibleWith(format);
+        long count = 0;
+        try (Stream<PropertyExportRow> rows = since == null
+                ? propertyRepository.streamExport()
+                : propertyRepository.streamExportChangedSince(since);
+             SequenceWriter writer = (ndjson ? ndjsonWriter : csvWriter).writeValues(out)) {
+            count += write(rows, writer);
+            if (since != null) {
+                try (Stream<PropertyExportRow> tombstones = changeRecordRepository.streamPropertyDeletionsSince(since)) {
+                    count += write(tombstones, writer);
+                }
+            }
+        }
+        if (ndjson && count > 0) {
+            // The separator only goes between rows; terminate the last line too
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private static long write(Stream<PropertyExportRow> rows, SequenceWriter writer) throws IOException {
+        long count = 0;
+        Iterator<PropertyExportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            writer.write(iterator.next());
+            count++;
+        }
+        return count;
+    }
+}
@@ -1,91 +1,180 @@
 package com.mazlogic.properties.service;
 
+import com.mazlogic.properties.config.CacheConfig;
+import com.mazlogic.properties.event.ImageChangedEvent;
+import com.mazlogic.properties.event.ImageDeletedEvent;
+import com.mazlogic.properties.event.ImageUploadedEvent;
+import com.mazlogic.properties.event.PropertyChangedEvent.ChangeType;
+import com.mazlogic.properties.model.ImageStatus;
+import com.mazlogic.properties.model.ImageVariant;
 import com.mazlogic.properties.model.Property;
 import com.mazlogic.properties.model.PropertyImage;
 import com.mazlogic.properties.model.dto.PropertyImageDTO;
 import com.mazlogic.properties.repository.PropertyImageRepository;
-import javax.persistence.EntityNotFoundException;
+import com.mazlogic.properties.repository.PropertyImageUrl;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", description = "Service method latency")
 public class PropertyImageService {
 
+    private static final Logger log = LoggerFactory.getLogger(PropertyImageService.class);
+
     private final PropertyImageRepository propertyImageRepository;
     private final FileStorageService fileStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final TaskScheduler taskScheduler;
+    private final PropertyMapper propertyMapper;
+    
+    // How long the files of a deleted image are kept before checking whether they are still
+    // referenced. An upload reuses existing content before it records its image, so it may have
+    // picked up the files just before their last reference went; the delay lets it commit first.
+    @Value("${application.storage.delete-grace-period:PT10M}")
+    private Duration deleteGracePeriod;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
     
     @Autowired
     public PropertyImageService(
             PropertyImageRepository propertyImageRepository,
-            FileStorageService fileStorageService) {
+            FileStorageService fileStorageService,
+            ApplicationEventPublisher eventPublisher,
+            CacheManager cacheManager,
+            TaskScheduler taskScheduler,
+            PropertyMapper propertyMapper) {
         this.propertyImageRepository = propertyImageRepository;
         this.fileStorageService = fileStorageService;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.taskScheduler = taskScheduler;
+        this.propertyMapper = propertyMapper;
     }
     
+    @Transactional(readOnly = true)
     public List<PropertyImageDTO> getImagesByPropertyId(Long propertyId) {
         return propertyImageRepository.findByPropertyIdOrderByDisplayOrderAsc(propertyId)
                 .stream()
-                .map(this::convertToDTO)
+                .map(propertyMapper::toDTO)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Loads the ordered images of several properties with a single query, keyed by property ID.
+     * Used by list reads so that a page costs one image query instead of one per property.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<PropertyImageDTO>> getImagesByPropertyIds(Collection<Long> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, List<PropertyImageDTO>> imagesByProperty = new HashMap<>();
+        for (PropertyImage image : propertyImageRepository.findByPropertyIdIn(propertyIds)) {
+            imagesByProperty
+                    .computeIfAbsent(image.getProperty().getId(), id -> new ArrayList<>())
+                    .add(propertyMapper.toDTO(image));
+        }
+        return imagesByProperty;
+    }
+    
+    /**
+     * Loads only the ordered card-size image URLs of several properties, keyed by property ID,
+     * for summary listings that do not need full image details.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<String>> getImageUrlsByPropertyIds(Collection<Long> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, List<String>> urlsByProperty = new HashMap<>();
+        for (PropertyImageUrl imageUrl : propertyImageRepository.findImageUrlsByPropertyIdIn(propertyIds)) {
+            urlsByProperty
+                    .computeIfAbsent(imageUrl.getPropertyId(), id -> new ArrayList<>())
+                    .add(propertyMapper.variantUrl(imageUrl.getImageUrl(), imageUrl.getCardFileName()));
+        }
+        return urlsByProperty;
+    }
+    
+    /**
+     * Records an image whose content was already streamed to storage, outside of any
+     * transaction. The stored file is removed again when the property does not exist.
+     */
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES, key = "#propertyId")
     @Transactional
-    public PropertyImageDTO uploadImage(Property property, MultipartFile file, String description, Integer displayOrder) {
-        try {
-            System.out.println("Starting image upload for property ID: " + property.getId());
-            
-            // Store the file
-            String fileName = fileStorageService.storeFile(file);
-            System.out.println("File saved with filename: " + fileName);
-            
-            // Create image URL - make sure it's accessible from Angular's origin
-            // Use localhost explicitly since ServletUriComponentsBuilder might return null for host in some environments
-            String host = "localhost";
-            String port = "8081"; // Updated to match the port in application.yml
-            
-            // Create absolute URL
-            String fileDownloadUri = "http://" + host + ":" + port + "/images/" + fileName;
-            System.out.println("Generated image URL: " + fileDownloadUri);
-            
-            // Create image entity
-            PropertyImage image = new PropertyImage();
-            image.setFileName(fileName);
-            image.setOriginalFileName(file.getOriginalFilename());
-            image.setFileSize(file.getSize());
-            image.setContentType(file.getContentType());
-            image.setImageUrl(fileDownloadUri);
-            image.setDescription(description != null ? description : "Property Image");
-            image.setDisplayOrder(displayOrder != null ? displayOrder : 0);
-            
-            // First save the image to get an ID
-            image.setProperty(property); // Set the relationship first
-            PropertyImage savedImage = propertyImageRepository.save(image);
-            System.out.println("Image saved to database with ID: " + savedImage.getId());
-            
-            // Now add the image to the property's collection to maintain the bidirectional relationship
-            if (!property.getImages().contains(savedImage)) {
-                property.getImages().add(savedImage);
-                System.out.println("Added image to property's collection. Current image count: " + property.getImages().size());
-            }
-            
-            return convertToDTO(savedImage);
-        } catch (Exception e) {
-            System.err.println("Error uploading image: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to upload image: " + e.getMessage(), e);
+    public PropertyImageDTO addStoredImage(Long propertyId, StoredFile storedFile, String originalFileName,
+                                           String contentType, String description, Integer displayOrder) {
+        Property property = entityManager.find(Property.class, propertyId);
+        if (property == null) {
+            fileStorageService.deleteFile(storedFile.getFileName());
+            throw new EntityNotFoundException("Property not found with ID: " + propertyId);
         }
+        return saveImage(property, storedFile, originalFileName, contentType, description, displayOrder);
     }
     
+    private PropertyImageDTO saveImage(Property property, StoredFile storedFile, String originalFileName,
+                                       String contentType, String description, Integer displayOrder) {
+        // Create image entity
+        PropertyImage image = new PropertyImage();
+        image.setFileName(storedFile.getFileName());
+        image.setOriginalFileName(originalFileName);
+        image.setFileSize(storedFile.getSize());
+        image.setContentHash(storedFile.getSha256());
+        image.setContentType(contentType);
+        // Absolute URL so it is accessible from Angular's origin
+        image.setImageUrl(propertyMapper.imageUrl(storedFile.getFileName()));
+        image.setDescription(description != null ? description : "Property Image");
+        image.setDisplayOrder(displayOrder != null ? displayOrder : 0);
+        // Variants are generated in the background once this transaction commits
+        image.setStatus(ImageStatus.PENDING);
+        
+        image.setProperty(property);
+        PropertyImage savedImage = propertyImageRepository.save(image);
+        touchProperty(property);
+        eventPublisher.publishEvent(new ImageUploadedEvent(savedImage.getId()));
+        
+        // Maintain the bidirectional relationship
+        if (!property.getImages().contains(savedImage)) {
+            property.getImages().add(savedImage);
+        }
+        
+        PropertyImageDTO saved = propertyMapper.toDTO(savedImage);
+        eventPublisher.publishEvent(new ImageChangedEvent(ChangeType.CREATED, saved.getId(), property.getId(), saved));
+        return saved;
+    }
+    
+    @Transactional(readOnly = true)
     public PropertyImageDTO getImage(Long id) {
         PropertyImage image = propertyImageRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Image not found with ID: " + id));
-        return convertToDTO(image);
+        return propertyMapper.toDTO(image);
     }
     
     @Transactional
@@ -93,26 +182,27 @@ public class PropertyImageService {
         PropertyImage image = propertyImageRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Image not found with ID: " + id));
         
-        // Delete file from storage
-        fileStorageService.deleteFile(image.getFileName());
-        
-        // Delete from database
+        // Delete from database; the files follow after commit if no other image shares them
         propertyImageRepository.delete(image);
+        eventPublisher.publishEvent(deletedEvent(image));
+        publishDeleted(image);
+        touchProperty(image.getProperty());
+        evictProperty(image.getProperty().getId());
     }
     
     @Transactional
     public void deleteImagesForProperty(Long propertyId) {
         List<PropertyImage> images = propertyImageRepository.findByPropertyId(propertyId);
         
-        // Delete files from storage
+        // Delete from database; the files follow after commit if no other image shares them
+        propertyImageRepository.deleteByPropertyId(propertyId);
         for (PropertyImage image : images) {
-            fileStorageService.deleteFile(image.getFileName());
+            eventPublisher.publishEvent(deletedEvent(image));
+            publishDeleted(image);
         }
-        
-        // Delete from database
-        propertyImageRepository.deleteByPropertyId(propertyId);
     }
     
+    @Transactional
     public PropertyImageDTO updateImageDetails(Long id, String description, Integer displayOrder) {
         PropertyImage image = propertyImageRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Image not found with ID: " + id));
@@ -121,34 +211,111 @@ public class PropertyImageService {
         image.setDisplayOrder(displayOrder);
         
         PropertyImage updatedImage = propertyImageRepository.save(image);
-        return convertToDTO(updatedImage);
+        touchProperty(updatedImage.getProperty());
+        evictProperty(updatedImage.getProperty().getId());
+        return publishUpdated(updatedImage);
     }
     
-    // Entity to DTO conversion
-    private PropertyImageDTO convertToDTO(PropertyImage image) {
-        PropertyImageDTO dto = new PropertyImageDTO();
-        dto.setId(image.getId());
-        dto.setImageUrl(image.getImageUrl());
-        dto.setDescription(image.getDescription());
-        dto.setDisplayOrder(image.getDisplayOrder());
-        dto.setOriginalFileName(image.getOriginalFileName());
-        return dto;
+    /**
+     * Stores the dimensions and variant file names produced by a processing worker. Runs in
+     * its own transaction so it also commits when called from an after-commit callback.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void completeProcessing(PropertyImage processed) {
+        PropertyImage image = propertyImageRepository.findById(processed.getId()).orElse(null);
+        if (image == null) {
+            // Deleted while processing; drop the variants that were just written unless shared
+            onImageDeleted(deletedEvent(processed));
+            return;
+        }
+        image.setWidth(processed.getWidth());
+        image.setHeight(processed.getHeight());
+        for (ImageVariant variant : ImageVariant.values()) {
+            image.setVariantFileName(variant, processed.getVariantFileName(variant));
+        }
+        image.setStatus(ImageStatus.READY);
+        touchProperty(image.getProperty());
+        evictProperty(image.getProperty().getId());
+        publishUpdated(image);
+    }
+    
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void failProcessing(Long imageId) {
+        propertyImageRepository.findById(imageId).ifPresent(image -> {
+            image.setStatus(ImageStatus.FAILED);
+            touchProperty(image.getProperty());
+            evictProperty(image.getProperty().getId());
+            publishUpdated(image);
+        });
+    }
+    
+    // Images are part of the property's representation, so changing them bumps its version (and ETag)
+    // and its change timestamp; the resulting update is version-checked like any other
+    private void touchProperty(Property property) {
+        property.setUpdatedAt(Instant.now());
+    }
+    
+    // Recorded in the change feed (see ChangeFeedService)
+    private PropertyImageDTO publishUpdated(PropertyImage image) {
+        PropertyImageDTO updated = propertyMapper.toDTO(image);
+        eventPublisher.publishEvent(new ImageChangedEvent(
+                ChangeType.UPDATED, image.getId(), image.getProperty().getId(), updated));
+        return updated;
+    }
+    
+    private void publishDeleted(PropertyImage image) {
+        eventPublisher.publishEvent(new ImageChangedEvent(
+                ChangeType.DELETED, image.getId(), image.getProperty().getId(), null));
+    }
+    
+    // The cached property details embed their images
+    private void evictProperty(Long propertyId) {
+        Cache cache = cacheManager.getCache(CacheConfig.PROPERTIES);
+        if (cache != null) {
+            cache.evict(propertyId);
+        }
+    }
+    
+    /**
+     * Removes the files of a deleted image, after the grace period, if no image references
+     * the same content by then. Variants are derived from the content, so they share its
+     * lifetime. Checks still pending when the application stops are dropped, which leaves
+     * the files in place.
+     */
+    @TransactionalEventListener
+    public void onImageDeleted(ImageDeletedEvent event) {
+        taskScheduler.schedule(() -> deleteUnreferencedFiles(event), Instant.now().plus(deleteGracePeriod));
+    }
+    
+    private void deleteUnreferencedFiles(ImageDeletedEvent event) {
+        if (propertyImageRepository.countByFileName(event.getFileName()) > 0) {
+            return;
+        }
+        fileStorageService.deleteFile(event.getFileName());
+        for (String variantFileName : event.getVariantFileNames()) {
+            fileStorageService.deleteFile(variantFileName);
+        }
+    }
+    
+    private static ImageDeletedEvent deletedEvent(PropertyImage image) {
+        List<String> variantFileNames = new ArrayList<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (image.getVariantFileName(variant) != null) {
+                variantFileNames.add(image.getVariantFileName(variant));
+            }
+        }
+        return new ImageDeletedEvent(image.getFileName(), variantFileNames);
     }
     
     // Debug method to check if property has images
+    @Transactional(readOnly = true)
     public void debugPropertyImages(Long propertyId) {
         Property property = propertyImageRepository.findById(propertyId)
                 .map(PropertyImage::getProperty)
                 .orElseThrow(() -> new EntityNotFoundException("No images found for property ID: " + propertyId));
         
-        System.out.println("DEBUG - Property ID: " + property.getId());
-        System.out.println("DEBUG - Property Title: " + property.getTitle());
-        System.out.println("DEBUG - Image count: " + property.getImages().size());
-        
-        property.getImages().forEach(image -> {
-            System.out.println("DEBUG - Image ID: " + image.getId());
-            System.out.println("DEBUG - Image URL: " + image.getImageUrl());
-            System.out.println("DEBUG - Image File: " + image.getFileName());
-        });
+        log.debug("Property {} ({}) has {} images", property.getId(), property.getTitle(), property.getImages().size());
+        property.getImages().forEach(image ->
+                log.debug("Image {}: url={} file={}", image.getId(), image.getImageUrl(), image.getFileName()));
     }
 }
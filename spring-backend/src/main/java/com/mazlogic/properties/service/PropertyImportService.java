@@ -0,0 +1,176 @@
+package com.mazlogic.properties.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.mazlogic.properties.model.dto.ImportReportDTO;
+import com.mazlogic.properties.model.dto.ImportRowResultDTO;
+import com.mazlogic.properties.model.dto.PropertyImportRow;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of listings from NDJSON (one JSON object per line) or CSV with a header row.
+ * The document is parsed as it streams in and written in batches of
+ * {@code application.import.batch-size} rows, each in its own transaction, so memory use
+ * and transaction length do not grow with the document.
+ */
+@Service
+public class PropertyImportService {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private final PropertyService propertyService;
+    private final Validator validator;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+
+    @Value("${application.import.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    public PropertyImportService(PropertyService propertyService, Validator validator, ObjectMapper objectMapper) {
+        this.propertyService = propertyService;
+        this.validator = validator;
+        this.jsonReader = objectMapper.readerFor(PropertyImportRow.class);
+        CsvMapper csvMapper = new CsvMapper();
+        csvMapper.enable(CsvParser.Feature.TRIM_SPACES);
+        csvMapper.enable(CsvParser.Feature.EMPTY_STRING_AS_NULL);
+        this.csvReader = csvMapper.readerFor(PropertyImportRow.class).with(CsvSchema.emptySchema().withHeader());
+    }
+
+    public ImportReportDTO importProperties(InputStream content, MediaType contentType) throws IOException {
+        Batcher batcher = new Batcher();
+        if (NDJSON.isCompatibleWith(contentType)) {
+            readNdjson(content, batcher);
+        } else if (CSV.isCompatibleWith(contentType)) {
+            readCsv(content, batcher);
+        } else {
+            throw new IllegalArgumentException("Unsupported import format: " + contentType);
+        }
+        return batcher.finish();
+    }
+
+    // Line by line, so a malformed line fails alone instead of derailing the parser
+    private void readNdjson(InputStream content, Batcher batcher) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        long line = 0;
+        String json;
+        while ((json = reader.readLine()) != null) {
+            line++;
+            if (json.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                PropertyImportRow row = jsonReader.readValue(json);
+                row.setLine(line);
+                batcher.add(row);
+            } catch (JsonProcessingException ex) {
+                batcher.fail(line, "Invalid JSON: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(InputStream content, Batcher batcher) throws IOException {
+        try (MappingIterator<PropertyImportRow> rows = csvReader.readValues(content)) {
+            while (true) {
+                long line = rows.getCurrentLocation().getLineNr();
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    line = rows.getCurrentLocation().getLineNr();
+                    PropertyImportRow row = rows.nextValue();
+                    row.setLine(line);
+                    batcher.add(row);
+                } catch (RuntimeException ex) {
+                    // The iterator resynchronises at the next row
+                    batcher.fail(line, "Invalid CSV row: " + ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects valid rows into batches and the per-row results in line order.
+     */
+    private class Batcher {
+
+        private final List<PropertyImportRow> batch = new ArrayList<>();
+        private final List<ImportRowResultDTO> results = new ArrayList<>();
+
+        void add(PropertyImportRow row) {
+            String error = validate(row);
+            if (error != null) {
+                fail(row.getLine(), error);
+                return;
+            }
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void fail(long line, String error) {
+            results.add(ImportRowResultDTO.failed(line, error));
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                results.addAll(propertyService.importProperties(batch));
+            } catch (RuntimeException ex) {
+                // The batch was rolled back as a whole
+                for (PropertyImportRow row : batch) {
+                    fail(row.getLine(), "Batch failed: " + ex.getMessage());
+                }
+            }
+            batch.clear();
+        }
+
+        ImportReportDTO finish() {
+            flush();
+            results.sort(Comparator.comparingLong(ImportRowResultDTO::getLine));
+            int created = (int) results.stream()
+                    .filter(result -> result.getStatus() == ImportRowResultDTO.Status.CREATED)
+                    .count();
+            return new ImportReportDTO(results.size(), created, results.size() - created, results);
+        }
+    }
+
+    private String validate(PropertyImportRow row) {
+        Set<ConstraintViolation<PropertyImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (row.getAgentId() == null && (row.getAgentEmail() == null || row.getAgentEmail().isEmpty())) {
+            return "Agent ID or email is required";
+        }
+        return null;
+    }
+}
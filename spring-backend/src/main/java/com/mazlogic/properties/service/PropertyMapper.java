@@ -0,0 +1,88 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.model.ImageStatus;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.PropertyImage;
+import com.mazlogic.properties.model.dto.AgentDTO;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.model.dto.PropertyImageDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity to DTO conversion of properties and their images, shared by the JPA services and
+ * the reactive reads. Stateless apart from the image base URL, so it has no proxies.
+ */
+@Component
+public class PropertyMapper {
+
+    // Public base URL of the /images/** handler, with trailing slash
+    @Value("${application.storage.image-base-url:http://localhost:8081/images/}")
+    private String imageBaseUrl;
+
+    public PropertyDTO toDTO(Property property) {
+        List<PropertyImageDTO> imageDTOs = new ArrayList<>();
+        if (property.getImages() != null) {
+            for (PropertyImage image : property.getImages()) {
+                imageDTOs.add(toDTO(image));
+            }
+        }
+        return toDTO(property, imageDTOs);
+    }
+
+    // With images that were loaded separately
+    public PropertyDTO toDTO(Property property, List<PropertyImageDTO> imageDTOs) {
+        PropertyDTO dto = new PropertyDTO();
+        dto.setId(property.getId());
+        dto.setVersion(property.getVersion());
+        dto.setTitle(property.getTitle());
+        dto.setDescription(property.getDescription());
+        dto.setPrice(property.getPrice());
+        dto.setType(property.getType());
+        dto.setLocation(property.getLocation());
+
+        // Set agent
+        if (property.getAgent() != null) {
+            AgentDTO agentDTO = new AgentDTO();
+            agentDTO.setId(property.getAgent().getId());
+            agentDTO.setVersion(property.getAgent().getVersion());
+            agentDTO.setName(property.getAgent().getName());
+            agentDTO.setEmail(property.getAgent().getEmail());
+            agentDTO.setPhone(property.getAgent().getPhone());
+            dto.setAgent(agentDTO);
+        }
+
+        dto.setImages(imageDTOs);
+
+        return dto;
+    }
+
+    public PropertyImageDTO toDTO(PropertyImage image) {
+        PropertyImageDTO dto = new PropertyImageDTO();
+        dto.setId(image.getId());
+        dto.setImageUrl(image.getImageUrl());
+        dto.setDescription(image.getDescription());
+        dto.setDisplayOrder(image.getDisplayOrder());
+        dto.setOriginalFileName(image.getOriginalFileName());
+        // Images from before processing was tracked are served as they are
+        dto.setStatus(image.getStatus() != null ? image.getStatus() : ImageStatus.READY);
+        dto.setWidth(image.getWidth());
+        dto.setHeight(image.getHeight());
+        dto.setThumbnailUrl(variantUrl(image.getImageUrl(), image.getThumbnailFileName()));
+        dto.setCardUrl(variantUrl(image.getImageUrl(), image.getCardFileName()));
+        dto.setFullUrl(variantUrl(image.getImageUrl(), image.getFullFileName()));
+        return dto;
+    }
+
+    public String imageUrl(String fileName) {
+        return imageBaseUrl + fileName;
+    }
+
+    // Variants that were not generated fall back to the original
+    public String variantUrl(String imageUrl, String variantFileName) {
+        return variantFileName != null ? imageUrl(variantFileName) : imageUrl;
+    }
+}
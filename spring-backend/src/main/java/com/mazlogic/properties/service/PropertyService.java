@@ -1,58 +1,195 @@
 package com.mazlogic.properties.service;
 
+import com.mazlogic.properties.config.CacheConfig;
+import com.mazlogic.properties.event.PropertiesImportedEvent;
+import com.mazlogic.properties.event.PropertyChangedEvent;
 import com.mazlogic.properties.model.Agent;
 import com.mazlogic.properties.model.Property;
-import com.mazlogic.properties.model.PropertyImage;
-import com.mazlogic.properties.model.dto.AgentDTO;
+import com.mazlogic.properties.model.dto.ImportRowResultDTO;
+import com.mazlogic.properties.model.dto.PageResponse;
 import com.mazlogic.properties.model.dto.PropertyDTO;
 import com.mazlogic.properties.model.dto.PropertyImageDTO;
+import com.mazlogic.properties.model.dto.PropertyImportRow;
+import com.mazlogic.properties.model.dto.PropertySummaryDTO;
 import com.mazlogic.properties.repository.AgentRepository;
+import com.mazlogic.properties.repository.PropertyCursor;
+import com.mazlogic.properties.repository.PropertyFilter;
 import com.mazlogic.properties.repository.PropertyRepository;
-import javax.persistence.EntityNotFoundException;
+import com.mazlogic.properties.repository.PropertySort;
+import com.mazlogic.properties.repository.PropertyVersion;
+import com.mazlogic.properties.search.PropertySearchHit;
+import com.mazlogic.properties.search.PropertySearchIndex;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", description = "Service method latency")
 public class PropertyService {
 
     private final PropertyRepository propertyRepository;
     private final AgentRepository agentRepository;
     private final PropertyImageService propertyImageService;
+    private final PropertySearchIndex propertySearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PropertyMapper propertyMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${application.pagination.default-size:20}")
+    private int defaultPageSize;
+    
+    @Value("${application.pagination.max-size:100}")
+    private int maxPageSize;
     
     @Autowired
     public PropertyService(
             PropertyRepository propertyRepository,
             AgentRepository agentRepository,
-            PropertyImageService propertyImageService) {
+            PropertyImageService propertyImageService,
+            PropertySearchIndex propertySearchIndex,
+            ApplicationEventPublisher eventPublisher,
+            PropertyMapper propertyMapper) {
         this.propertyRepository = propertyRepository;
         this.agentRepository = agentRepository;
         this.propertyImageService = propertyImageService;
+        this.propertySearchIndex = propertySearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.propertyMapper = propertyMapper;
     }
     
-    public List<PropertyDTO> getAllProperties() {
-        return propertyRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponse<PropertyDTO> getAllProperties(String cursor, Integer size, String sort) {
+        return findPage(PropertyFilter.none(), cursor, size, sort);
     }
     
+    @Cacheable(cacheNames = CacheConfig.PROPERTIES, key = "#id")
+    @Transactional(readOnly = true)
     public PropertyDTO getPropertyById(Long id) {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Property not found with ID: " + id));
-        return convertToDTO(property);
+        return propertyMapper.toDTO(property);
     }
     
     @Transactional
     public PropertyDTO createProperty(PropertyDTO propertyDTO) {
         Property property = convertToEntity(propertyDTO);
         Property savedProperty = propertyRepository.save(property);
-        return convertToDTO(savedProperty);
+        PropertyDTO created = propertyMapper.toDTO(savedProperty);
+        eventPublisher.publishEvent(PropertyChangedEvent.created(created));
+        return created;
     }
     
+    /**
+     * Inserts one batch of validated import rows in a single transaction. Agents are
+     * resolved with one lookup per batch; rows whose agent does not exist are reported as
+     * failed and skipped. The inserts go out as JDBC batches (sequence ids, ordered inserts).
+     */
+    @Transactional
+    public List<ImportRowResultDTO> importProperties(List<PropertyImportRow> rows) {
+        Set<Long> agentIds = new HashSet<>();
+        Set<String> agentEmails = new HashSet<>();
+        for (PropertyImportRow row : rows) {
+            if (row.getAgentId() != null) {
+                agentIds.add(row.getAgentId());
+            } else if (row.getAgentEmail() != null) {
+                agentEmails.add(row.getAgentEmail());
+            }
+        }
+        Map<Long, Agent> agentsById = agentRepository.findAllById(agentIds).stream()
+                .collect(Collectors.toMap(Agent::getId, Function.identity()));
+        Map<String, Agent> agentsByEmail = agentEmails.isEmpty() ? Collections.emptyMap()
+                : agentRepository.findByEmailIn(agentEmails).stream()
+                        .collect(Collectors.toMap(Agent::getEmail, Function.identity()));
+        
+        List<ImportRowResultDTO> results = new ArrayList<>();
+        List<PropertyImportRow> importedRows = new ArrayList<>();
+        List<Property> properties = new ArrayList<>();
+        for (PropertyImportRow row : rows) {
+            Agent agent = row.getAgentId() != null ? agentsById.get(row.getAgentId()) : agentsByEmail.get(row.getAgentEmail());
+            if (agent == null) {
+                results.add(ImportRowResultDTO.failed(row.getLine(), row.getAgentId() != null
+                        ? "Agent not found with ID: " + row.getAgentId()
+                        : "Agent not found with email: " + row.getAgentEmail()));
+                continue;
+            }
+            Property property = new Property();
+            property.setTitle(row.getTitle());
+            property.setDescription(row.getDescription());
+            property.setPrice(row.getPrice());
+            property.setType(row.getType());
+            property.setLocation(row.getLocation());
+            property.setAgent(agent);
+            importedRows.add(row);
+            properties.add(property);
+        }
+        
+        propertyRepository.saveAll(properties);
+        // Write the batch now and keep the persistence context from growing across batches
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<PropertyDTO> created = new ArrayList<>();
+        for (int i = 0; i < properties.size(); i++) {
+            created.add(propertyMapper.toDTO(properties.get(i), new ArrayList<>()));
+            results.add(ImportRowResultDTO.created(importedRows.get(i).getLine(), properties.get(i).getId()));
+        }
+        eventPublisher.publishEvent(new PropertiesImportedEvent(created));
+        return results;
+    }
+    
+    /**
+     * ETag of a property, read with a single indexed version lookup.
+     */
+    @Transactional(readOnly = true)
+    public String getPropertyETag(Long id) {
+        return propertyRepository.findVersionById(id)
+                .map(ETags::property)
+                .orElseThrow(() -> new EntityNotFoundException("Property not found with ID: " + id));
+    }
+    
+    /**
+     * ETag of a listing page, computed from the IDs and versions of its rows without loading
+     * them. Returns null for text searches, whose results come from the search index.
+     */
+    @Transactional(readOnly = true)
+    public String getPageETag(PropertyFilter filter, String cursor, Integer size, String sort) {
+        filter.validate();
+        if (filter.requiresTextSearch()) {
+            return null;
+        }
+        PropertySort propertySort = PropertySort.forKeyset(sort);
+        PropertyCursor after = PropertyCursor.decode(cursor, propertySort);
+        int pageSize = resolvePageSize(size);
+        
+        List<PropertyVersion> versions = propertyRepository.findPageVersions(filter, propertySort, after, pageSize + 1);
+        boolean hasNext = versions.size() > pageSize;
+        if (hasNext) {
+            versions = versions.subList(0, pageSize);
+        }
+        return ETags.propertyPage(versions, hasNext);
+    }
+    
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES, key = "#id")
     @Transactional
     public PropertyDTO updateProperty(Long id, PropertyDTO propertyDTO) {
         Property existingProperty = propertyRepository.findById(id)
@@ -72,10 +209,14 @@ public class PropertyService {
             existingProperty.setAgent(agent);
         }
         
-        Property updatedProperty = propertyRepository.save(existingProperty);
-        return convertToDTO(updatedProperty);
+        // Flush so the returned representation carries the incremented version
+        Property updatedProperty = propertyRepository.saveAndFlush(existingProperty);
+        PropertyDTO updated = propertyMapper.toDTO(updatedProperty);
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(updated));
+        return updated;
     }
     
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES, key = "#id")
     @Transactional
     public void deleteProperty(Long id) {
         if (!propertyRepository.existsById(id)) {
@@ -87,32 +228,163 @@ public class PropertyService {
         
         // Delete the property
         propertyRepository.deleteById(id);
+        eventPublisher.publishEvent(PropertyChangedEvent.deleted(id));
     }
     
-    public List<PropertyDTO> searchProperties(String keyword) {
-        return propertyRepository.searchByKeyword(keyword).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponse<PropertyDTO> searchProperties(String keyword, String cursor, Integer size, String sort) {
+        return findPage(PropertyFilter.byKeyword(keyword), cursor, size, sort);
     }
     
-    public List<PropertyDTO> getPropertiesByType(String type) {
-        return propertyRepository.findByType(type).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PageResponse<PropertyDTO> getPropertiesByType(String type, String cursor, Integer size, String sort) {
+        return findPage(PropertyFilter.byType(type), cursor, size, sort);
+    }
+    
+    @Transactional(readOnly = true)
+    public PageResponse<PropertyDTO> getPropertiesByAgentId(Long agentId, String cursor, Integer size, String sort) {
+        return findPage(PropertyFilter.byAgentId(agentId), cursor, size, sort);
+    }
+    
+    @Transactional(readOnly = true)
+    public PageResponse<PropertyDTO> getPropertiesByMaxPrice(Double maxPrice, String cursor, Integer size, String sort) {
+        return findPage(PropertyFilter.byMaxPrice(maxPrice), cursor, size, sort);
+    }
+    
+    /**
+     * Combined multi-criteria query. Structured filters (type, agent, price range) run as one
+     * indexed SQL query; keyword and location additionally go through the search index.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<PropertyDTO> queryProperties(PropertyFilter filter, String cursor, Integer size, String sort) {
+        return findPage(filter, cursor, size, sort);
     }
     
-    public List<PropertyDTO> getPropertiesByAgentId(Long agentId) {
-        return propertyRepository.findByAgentId(agentId).stream()
-                .map(this::convertToDTO)
+    /**
+     * Summary listing for list views: rows are projected straight from the query,
+     * so no entities are hydrated, dirty-checked or kept in the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<PropertySummaryDTO> getPropertySummaries(
+            PropertyFilter filter, String cursor, Integer size, String sort) {
+        filter.validate();
+        if (filter.requiresTextSearch()) {
+            return searchPage(filter, cursor, size, sort, this::loadSummaries);
+        }
+        PropertySort propertySort = PropertySort.forKeyset(sort);
+        PropertyCursor after = PropertyCursor.decode(cursor, propertySort);
+        int pageSize = resolvePageSize(size);
+        
+        List<PropertySummaryDTO> rows = propertyRepository.findSummaryPage(filter, propertySort, after, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        attachImageUrls(rows);
+        
+        String nextCursor = null;
+        if (hasNext) {
+            PropertySummaryDTO last = rows.get(rows.size() - 1);
+            nextCursor = PropertyCursor.after(last.getId(), last.getPrice(), propertySort).encode();
+        }
+        return new PageResponse<>(rows, rows.size(), nextCursor, hasNext);
+    }
+    
+    /**
+     * Reads one keyset page. One extra row is fetched to find out whether another page
+     * follows, so no COUNT query is needed. Agents are fetched with the page and all images
+     * of the page are loaded with one IN query, so a page always costs two statements.
+     */
+    private PageResponse<PropertyDTO> findPage(PropertyFilter filter, String cursor, Integer size, String sort) {
+        filter.validate();
+        if (filter.requiresTextSearch()) {
+            return searchPage(filter, cursor, size, sort, this::loadDTOs);
+        }
+        PropertySort propertySort = PropertySort.forKeyset(sort);
+        PropertyCursor after = PropertyCursor.decode(cursor, propertySort);
+        int pageSize = resolvePageSize(size);
+        
+        List<Property> rows = propertyRepository.findPage(filter, propertySort, after, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        List<PropertyDTO> content = convertToDTOs(rows);
+        String nextCursor = hasNext
+                ? PropertyCursor.after(rows.get(rows.size() - 1), propertySort).encode()
+                : null;
+        return new PageResponse<>(content, content.size(), nextCursor, hasNext);
+    }
+    
+    /**
+     * Reads one keyword/location page from the search index, which yields the ordered property
+     * IDs of the page; the rows are then loaded with a single query. Relevance is the default
+     * order for keyword searches. Hits whose property has been removed in the meantime are skipped.
+     */
+    private <T> PageResponse<T> searchPage(PropertyFilter filter, String cursor, Integer size, String sort,
+                                           Function<List<Long>, Map<Long, T>> loader) {
+        PropertySort propertySort = PropertySort.fromParameter(sort,
+                filter.hasKeyword() ? PropertySort.RELEVANCE : PropertySort.ID);
+        PropertyCursor after = PropertyCursor.decode(cursor, propertySort);
+        int pageSize = resolvePageSize(size);
+        
+        List<PropertySearchHit> hits = propertySearchIndex.search(filter, propertySort, after, pageSize + 1);
+        boolean hasNext = hits.size() > pageSize;
+        if (hasNext) {
+            hits = hits.subList(0, pageSize);
+        }
+        
+        Map<Long, T> rows = hits.isEmpty()
+                ? Collections.emptyMap()
+                : loader.apply(hits.stream().map(PropertySearchHit::getPropertyId).collect(Collectors.toList()));
+        List<T> content = hits.stream()
+                .map(hit -> rows.get(hit.getPropertyId()))
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        String nextCursor = hasNext
+                ? hits.get(hits.size() - 1).toCursor(propertySort).encode()
+                : null;
+        return new PageResponse<>(content, content.size(), nextCursor, hasNext);
+    }
+    
+    private Map<Long, PropertyDTO> loadDTOs(List<Long> ids) {
+        return convertToDTOs(propertyRepository.findAllWithAgentByIdIn(ids)).stream()
+                .collect(Collectors.toMap(PropertyDTO::getId, Function.identity()));
+    }
+    
+    private Map<Long, PropertySummaryDTO> loadSummaries(List<Long> ids) {
+        List<PropertySummaryDTO> summaries = propertyRepository.findSummariesByIdIn(ids);
+        attachImageUrls(summaries);
+        return summaries.stream()
+                .collect(Collectors.toMap(PropertySummaryDTO::getId, Function.identity()));
     }
     
-    public List<PropertyDTO> getPropertiesByMaxPrice(Double maxPrice) {
-        return propertyRepository.findByPriceLessThanEqual(maxPrice).stream()
-                .map(this::convertToDTO)
+    // Converts a batch of properties, loading the images of all of them with one query
+    private List<PropertyDTO> convertToDTOs(List<Property> properties) {
+        Map<Long, List<PropertyImageDTO>> images = propertyImageService.getImagesByPropertyIds(
+                properties.stream().map(Property::getId).collect(Collectors.toList()));
+        return properties.stream()
+                .map(property -> propertyMapper.toDTO(property, images.getOrDefault(property.getId(), new ArrayList<>())))
                 .collect(Collectors.toList());
     }
     
+    private void attachImageUrls(List<PropertySummaryDTO> summaries) {
+        Map<Long, List<String>> imageUrls = propertyImageService.getImageUrlsByPropertyIds(
+                summaries.stream().map(PropertySummaryDTO::getId).collect(Collectors.toList()));
+        summaries.forEach(summary -> summary.setImageUrls(imageUrls.getOrDefault(summary.getId(), new ArrayList<>())));
+    }
+    
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+    
     // DTO to Entity conversion
     private Property convertToEntity(PropertyDTO dto) {
         Property property = new Property();
@@ -132,42 +404,4 @@ public class PropertyService {
         
         return property;
     }
-    
-    // Entity to DTO conversion
-    private PropertyDTO convertToDTO(Property property) {
-        PropertyDTO dto = new PropertyDTO();
-        dto.setId(property.getId());
-        dto.setTitle(property.getTitle());
-        dto.setDescription(property.getDescription());
-        dto.setPrice(property.getPrice());
-        dto.setType(property.getType());
-        dto.setLocation(property.getLocation());
-        
-        // Set agent
-        if (property.getAgent() != null) {
-            AgentDTO agentDTO = new AgentDTO();
-            agentDTO.setId(property.getAgent().getId());
-            agentDTO.setName(property.getAgent().getName());
-            agentDTO.setEmail(property.getAgent().getEmail());
-            agentDTO.setPhone(property.getAgent().getPhone());
-            dto.setAgent(agentDTO);
-        }
-        
-        // Set images
-        List<PropertyImageDTO> imageDTOs = new ArrayList<>();
-        if (property.getImages() != null) {
-            for (PropertyImage image : property.getImages()) {
-                PropertyImageDTO imageDTO = new PropertyImageDTO();
-                imageDTO.setId(image.getId());
-                imageDTO.setImageUrl(image.getImageUrl());
-                imageDTO.setDescription(image.getDescription());
-                imageDTO.setDisplayOrder(image.getDisplayOrder());
-                imageDTO.setOriginalFileName(image.getOriginalFileName());
-                imageDTOs.add(imageDTO);
-            }
-        }
-        dto.setImages(imageDTOs);
-        
-        return dto;
-    }
 }
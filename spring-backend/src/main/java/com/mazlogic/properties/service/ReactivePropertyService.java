@@ -0,0 +1,118 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.PropertyImage;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.repository.PropertyCursor;
+import com.mazlogic.properties.repository.PropertyFilter;
+import com.mazlogic.properties.repository.PropertySort;
+import com.mazlogic.properties.repository.ReactivePropertyRepository;
+import com.mazlogic.properties.search.PropertySearchHit;
+import com.mazlogic.properties.search.PropertySearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming counterpart of the listing reads in {@link PropertyService}. A listing is
+ * emitted as one Flux of PropertyDTOs in keyset order instead of page by page, and rows
+ * are only read from the database as fast as the client consumes them. No thread waits
+ * on the database meanwhile; writes keep going through the JPA services.
+ */
+@Service
+public class ReactivePropertyService {
+
+    private final ReactivePropertyRepository reactivePropertyRepository;
+    private final PropertySearchIndex propertySearchIndex;
+    private final PropertyMapper propertyMapper;
+
+    // Rows per image lookup and per search index page
+    @Value("${application.reactive.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    public ReactivePropertyService(
+            ReactivePropertyRepository reactivePropertyRepository,
+            PropertySearchIndex propertySearchIndex,
+            PropertyMapper propertyMapper) {
+        this.reactivePropertyRepository = reactivePropertyRepository;
+        this.propertySearchIndex = propertySearchIndex;
+        this.propertyMapper = propertyMapper;
+    }
+
+    /**
+     * Streams all properties matching the filter, resuming after the cursor when one is
+     * given. Invalid arguments are rejected before the stream starts. Structured filters run
+     * as one SQL query; keyword and location go through the search index, as for pages.
+     * The images of each batch of rows are loaded with one query.
+     */
+    public Flux<PropertyDTO> streamProperties(PropertyFilter filter, String cursor, String sort) {
+        filter.validate();
+        if (filter.requiresTextSearch()) {
+            PropertySort propertySort = PropertySort.fromParameter(sort,
+                    filter.hasKeyword() ? PropertySort.RELEVANCE : PropertySort.ID);
+            return streamSearchHits(filter, propertySort, PropertyCursor.decode(cursor, propertySort));
+        }
+        PropertySort propertySort = PropertySort.forKeyset(sort);
+        PropertyCursor after = PropertyCursor.decode(cursor, propertySort);
+        return reactivePropertyRepository.findAll(filter, propertySort, after, batchSize)
+                .buffer(batchSize)
+                .concatMap(this::withImages, 1);
+    }
+
+    // Reads the index one page of hits at a time, each page only once the previous one is consumed
+    private Flux<PropertyDTO> streamSearchHits(PropertyFilter filter, PropertySort sort, PropertyCursor after) {
+        return searchPage(filter, sort, after)
+                .expand(hits -> hits.size() < batchSize
+                        ? Mono.empty()
+                        : searchPage(filter, sort, hits.get(hits.size() - 1).toCursor(sort)))
+                .concatMap(this::loadInHitOrder, 1);
+    }
+
+    // The index is local and blocking, so it is queried off the event loop
+    private Mono<List<PropertySearchHit>> searchPage(PropertyFilter filter, PropertySort sort, PropertyCursor after) {
+        return Mono.fromCallable(() -> propertySearchIndex.search(filter, sort, after, batchSize))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Hits whose property has been removed in the meantime are skipped
+    private Flux<PropertyDTO> loadInHitOrder(List<PropertySearchHit> hits) {
+        if (hits.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Long> ids = hits.stream().map(PropertySearchHit::getPropertyId).collect(Collectors.toList());
+        return reactivePropertyRepository.findAllByIdIn(ids)
+                .collectMap(Property::getId, Function.identity())
+                .flatMapMany(rows -> withImages(ids.stream()
+                        .map(rows::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList())));
+    }
+
+    private Flux<PropertyDTO> withImages(List<Property> properties) {
+        if (properties.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Long> ids = properties.stream().map(Property::getId).collect(Collectors.toList());
+        return reactivePropertyRepository.findImagesByPropertyIdIn(ids)
+                .collect(HashMap<Long, List<PropertyImage>>::new, (images, image) -> images
+                        .computeIfAbsent(image.getProperty().getId(), id -> new ArrayList<>())
+                        .add(image))
+                .flatMapIterable(images -> properties.stream()
+                        .map(property -> {
+                            property.setImages(images.getOrDefault(property.getId(), new ArrayList<>()));
+                            return propertyMapper.toDTO(property);
+                        })
+                        .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.mazlogic.properties.service;
+
+/**
+ * A file written by FileStorageService, with the size and SHA-256 digest computed
+ * while it was streamed to disk.
+ */
+public class StoredFile {
+
+    private final String fileName;
+    private final long size;
+    // Lower-case hex SHA-256 of the content
+    private final String sha256;
+
+    public StoredFile(String fileName, long size, String sha256) {
+        this.fileName = fileName;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+}
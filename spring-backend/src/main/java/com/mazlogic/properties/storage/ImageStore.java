@@ -0,0 +1,77 @@
+package com.mazlogic.properties.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Storage backend for image files. Keys are the content-addressed file names produced by
+ * FileStorageService ({@code ab/cd/<sha256>.jpg}, variants alongside), or flat names for
+ * images uploaded before content addressing.
+ *
+ * Implementations are selected with {@code application.storage.backend}.
+ */
+public interface ImageStore {
+
+    /**
+     * Human-readable backend type and location, e.g. for the system info endpoint.
+     */
+    String getName();
+
+    String getLocation();
+
+    /**
+     * Creates an empty local file to stream an upload into before handing it to
+     * {@link #putIfAbsent}; for the local backend it lives on the same file system as the
+     * store so the hand-over is a rename.
+     */
+    Path createTempFile() throws IOException;
+
+    /**
+     * Publishes a fully written local file under the key, unless the key already exists.
+     * The caller still owns (and deletes) the file when it was not moved.
+     */
+    void putIfAbsent(String key, Path file) throws IOException;
+
+    /**
+     * Writes the content under the key, replacing any previous object atomically.
+     */
+    void put(String key, byte[] content) throws IOException;
+
+    /**
+     * @throws java.nio.file.NoSuchFileException when the key does not exist
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Opens the bytes from {@code start} up to and including {@code end}.
+     *
+     * @throws java.nio.file.NoSuchFileException when the key does not exist
+     */
+    InputStream open(String key, long start, long end) throws IOException;
+
+    /**
+     * @throws java.nio.file.NoSuchFileException when the key does not exist
+     */
+    long size(String key) throws IOException;
+
+    /**
+     * The file backing the key when it lives on the local file system, which allows
+     * zero-copy delivery; null for remote stores.
+     */
+    Path localPath(String key);
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Returns up to {@code limit} keys in lexicographic order, starting after the given key
+     * (from the beginning when null).
+     */
+    List<String> list(String afterKey, int limit) throws IOException;
+
+    /**
+     * Counts the objects and bytes under a key prefix such as {@code "ab/"}.
+     */
+    ShardStats scanShard(String prefix) throws IOException;
+}
@@ -0,0 +1,177 @@
+package com.mazlogic.properties.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Stores images below {@code application.storage.image-directory}; the key's shard
+ * prefixes become subdirectories, which keeps every directory small.
+ */
+@Component
+@ConditionalOnProperty(name = "application.storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalImageStore implements ImageStore {
+
+    // Upload temp files share the root so publishing them is an atomic rename
+    private static final String TEMP_PREFIX = ".upload-";
+
+    private final Path root;
+
+    public LocalImageStore(@Value("${application.storage.image-directory}") String imageDirectory) {
+        this.root = Paths.get(imageDirectory).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public String getLocation() {
+        return root.toString();
+    }
+
+    @Override
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(root, TEMP_PREFIX, ".tmp");
+    }
+
+    @Override
+    public void putIfAbsent(String key, Path file) throws IOException {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException ex) {
+            // A concurrent upload of the same content won; its file is identical
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] content) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path tempFile = createTempFile();
+        try {
+            Files.write(tempFile, content);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public InputStream open(String key, long start, long end) throws IOException {
+        SeekableByteChannel channel = Files.newByteChannel(resolve(key));
+        channel.position(start);
+        return new BoundedInputStream(Channels.newInputStream(channel), end - start + 1);
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return resolve(key);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public List<String> list(String afterKey, int limit) throws IOException {
+        List<String> keys = new ArrayList<>();
+        collect(root, "", afterKey, limit, keys);
+        return keys;
+    }
+
+    /**
+     * Depth-first walk in key order that skips whole subdirectories sorting before the
+     * cursor, so a page only reads the directories it returns keys from.
+     */
+    private void collect(Path directory, String prefix, String afterKey, int limit, List<String> keys) throws IOException {
+        for (String name : sortedNames(directory)) {
+            if (keys.size() >= limit) {
+                return;
+            }
+            String key = prefix + name;
+            if (name.endsWith("/")) {
+                if (afterKey == null || afterKey.compareTo(key) < 0 || afterKey.startsWith(key)) {
+                    collect(directory.resolve(name.substring(0, name.length() - 1)), key, afterKey, limit, keys);
+                }
+            } else if (afterKey == null || key.compareTo(afterKey) > 0) {
+                keys.add(key);
+            }
+        }
+    }
+
+    // Directory names carry a trailing slash so they sort exactly like the keys below them
+    private static List<String> sortedNames(Path directory) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (!name.startsWith(".")) {
+                    names.add(Files.isDirectory(entry) ? name + "/" : name);
+                }
+            }
+        }
+        names.sort(null);
+        return names;
+    }
+
+    @Override
+    public ShardStats scanShard(String prefix) throws IOException {
+        Path shard = resolve(prefix);
+        if (!Files.isDirectory(shard)) {
+            return new ShardStats(0, 0);
+        }
+        long[] totals = new long[2];
+        try (Stream<Path> files = Files.walk(shard)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                totals[0]++;
+                totals[1] += file.toFile().length();
+            });
+        }
+        return new ShardStats(totals[0], totals[1]);
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,179 @@
+package com.mazlogic.properties.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stores images in an S3-compatible bucket (AWS S3, MinIO, ...). Object keys are the
+ * storage keys unchanged; images are expected to be served by the bucket or a CDN in
+ * front of it, configured through {@code application.storage.image-base-url}.
+ */
+@Component
+@ConditionalOnProperty(name = "application.storage.backend", havingValue = "s3")
+public class S3ImageStore implements ImageStore {
+
+    private final S3Client s3;
+    private final String bucket;
+
+    @Autowired
+    public S3ImageStore(
+            @Value("${application.storage.s3.bucket}") String bucket,
+            @Value("${application.storage.s3.region:us-east-1}") String region,
+            @Value("${application.storage.s3.endpoint:}") String endpoint,
+            @Value("${application.storage.s3.access-key:}") String accessKey,
+            @Value("${application.storage.s3.secret-key:}") String secretKey) {
+        this(client(region, endpoint, accessKey, secretKey), bucket);
+    }
+
+    // For tests, with a stub client
+    S3ImageStore(S3Client s3, String bucket) {
+        this.s3 = s3;
+        this.bucket = bucket;
+    }
+
+    private static S3Client client(String region, String endpoint, String accessKey, String secretKey) {
+        S3ClientBuilder builder = S3Client.builder()
+                .httpClientBuilder(UrlConnectionHttpClient.builder())
+                .region(Region.of(region));
+        if (!endpoint.isEmpty()) {
+            // S3-compatible servers such as MinIO usually need path-style addressing
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        builder.credentialsProvider(accessKey.isEmpty()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        return builder.build();
+    }
+
+    @PreDestroy
+    public void close() {
+        s3.close();
+    }
+
+    @Override
+    public String getName() {
+        return "s3";
+    }
+
+    @Override
+    public String getLocation() {
+        return "s3://" + bucket;
+    }
+
+    @Override
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile("mazlogic-upload-", ".tmp");
+    }
+
+    @Override
+    public void putIfAbsent(String key, Path file) throws IOException {
+        if (exists(key)) {
+            return;
+        }
+        s3.putObject(request -> request.bucket(bucket).key(key), RequestBody.fromFile(file));
+    }
+
+    @Override
+    public void put(String key, byte[] content) {
+        s3.putObject(request -> request.bucket(bucket).key(key), RequestBody.fromBytes(content));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3.getObject(request -> request.bucket(bucket).key(key));
+        } catch (NoSuchKeyException ex) {
+            throw new NoSuchFileException(key);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long start, long end) throws IOException {
+        try {
+            return s3.getObject(request -> request.bucket(bucket).key(key).range("bytes=" + start + "-" + end));
+        } catch (NoSuchKeyException ex) {
+            throw new NoSuchFileException(key);
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return s3.headObject(request -> request.bucket(bucket).key(key)).contentLength();
+        } catch (S3Exception ex) {
+            if (ex.statusCode() == 404) {
+                throw new NoSuchFileException(key);
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    @Override
+    public void delete(String key) {
+        s3.deleteObject(request -> request.bucket(bucket).key(key));
+    }
+
+    @Override
+    public List<String> list(String afterKey, int limit) {
+        ListObjectsV2Request.Builder request = ListObjectsV2Request.builder().bucket(bucket).maxKeys(limit);
+        if (afterKey != null) {
+            request.startAfter(afterKey);
+        }
+        return s3.listObjectsV2(request.build()).contents().stream()
+                .map(S3Object::key)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public ShardStats scanShard(String prefix) {
+        long fileCount = 0;
+        long totalBytes = 0;
+        for (S3Object object : s3.listObjectsV2Paginator(request -> request.bucket(bucket).prefix(prefix)).contents()) {
+            fileCount++;
+            totalBytes += object.size();
+        }
+        return new ShardStats(fileCount, totalBytes);
+    }
+
+    private boolean exists(String key) {
+        try {
+            s3.headObject(request -> request.bucket(bucket).key(key));
+            return true;
+        } catch (S3Exception ex) {
+            // HEAD responses have no error body, so a missing key only shows as a 404
+            if (ex.statusCode() == 404) {
+                return false;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.mazlogic.properties.storage;
+
+/**
+ * Object count and total size below one key prefix of an ImageStore.
+ */
+public class ShardStats {
+
+    private final long fileCount;
+    private final long totalBytes;
+
+    public ShardStats(long fileCount, long totalBytes) {
+        this.fileCount = fileCount;
+        this.totalBytes = totalBytes;
+    }
+
+    public long getFileCount() {
+        return fileCount;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+}
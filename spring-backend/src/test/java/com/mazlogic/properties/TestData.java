@@ -0,0 +1,89 @@
+package com.mazlogic.properties;
+
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.PropertyImage;
+import com.mazlogic.properties.repository.AgentRepository;
+import com.mazlogic.properties.repository.PropertyImageRepository;
+import com.mazlogic.properties.repository.PropertyRepository;
+import com.mazlogic.properties.search.PropertySearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+/**
+ * Seeds agents, properties and images for integration tests and removes them again.
+ * Tests share the application context and its database, so each one that seeds data
+ * imports this ({@code @Import(TestData.class)}) and calls {@link #deleteAll()} after.
+ */
+@TestComponent
+public class TestData {
+
+    private final AgentRepository agentRepository;
+    private final PropertyRepository propertyRepository;
+    private final PropertyImageRepository propertyImageRepository;
+    private final PropertySearchIndex propertySearchIndex;
+
+    @Autowired
+    public TestData(AgentRepository agentRepository, PropertyRepository propertyRepository,
+                    PropertyImageRepository propertyImageRepository, PropertySearchIndex propertySearchIndex) {
+        this.agentRepository = agentRepository;
+        this.propertyRepository = propertyRepository;
+        this.propertyImageRepository = propertyImageRepository;
+        this.propertySearchIndex = propertySearchIndex;
+    }
+
+    public Agent createAgent(String name, String email) {
+        return agentRepository.save(agent(name, email, "(555) 000-0000"));
+    }
+
+    public Property createProperty(Property property) {
+        return propertyRepository.save(property);
+    }
+
+    public PropertyImage createImage(Property property, String fileName, int displayOrder) {
+        PropertyImage image = image(fileName, displayOrder);
+        image.setProperty(property);
+        return propertyImageRepository.save(image);
+    }
+
+    /**
+     * Deletes every image, property and agent in bulk, which bypasses the application's
+     * events, so the search index is rebuilt to match.
+     */
+    public void deleteAll() {
+        propertyImageRepository.deleteAllInBatch();
+        propertyRepository.deleteAllInBatch();
+        agentRepository.deleteAllInBatch();
+        propertySearchIndex.rebuild();
+    }
+
+    public static Agent agent(String name, String email, String phone) {
+        Agent agent = new Agent();
+        agent.setName(name);
+        agent.setEmail(email);
+        agent.setPhone(phone);
+        return agent;
+    }
+
+    /**
+     * An unsaved property with placeholder details, for tests to adjust before saving.
+     */
+    public static Property property(String title, Agent agent) {
+        Property property = new Property();
+        property.setTitle(title);
+        property.setDescription("Description");
+        property.setPrice(1000.0);
+        property.setType("sale");
+        property.setLocation("Location");
+        property.setAgent(agent);
+        return property;
+    }
+
+    public static PropertyImage image(String fileName, int displayOrder) {
+        PropertyImage image = new PropertyImage();
+        image.setFileName(fileName);
+        image.setImageUrl("http://localhost:8081/images/" + fileName);
+        image.setDisplayOrder(displayOrder);
+        return image;
+    }
+}
@@ -0,0 +1,110 @@
+package com.mazlogic.properties.config;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that spring.threads.virtual.enabled switches request handling and the async
+ * executors between virtual threads and platform thread pools.
+ */
+class ExecutionModeTest {
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = {
+            "spring.threads.virtual.enabled=true",
+            "application.web.async.pool-size=1",
+            "application.web.async.queue-capacity=1"
+    })
+    class VirtualThreads extends ExecutorsUnderTest {
+
+        @Test
+        void requestsAndAsyncWorkRunOnVirtualThreads() throws Exception {
+            assertThat(runsOnVirtualThread(tomcatExecutor())).isTrue();
+            assertThat(runsOnVirtualThread(webAsyncExecutor)).isTrue();
+            assertThat(runsOnVirtualThread(imageProcessingExecutor)).isTrue();
+        }
+
+        @Test
+        void asyncWorkBeyondThePoolSizeAndQueueCapacityIsRejected() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(2);
+            try {
+                for (int i = 0; i < 2; i++) {
+                    webAsyncExecutor.execute(() -> {
+                        started.countDown();
+                        awaitQuietly(release);
+                    });
+                }
+                assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+                assertThatThrownBy(() -> webAsyncExecutor.execute(() -> { }))
+                        .isInstanceOf(TaskRejectedException.class);
+            } finally {
+                release.countDown();
+            }
+        }
+
+        private static void awaitQuietly(CountDownLatch latch) {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads extends ExecutorsUnderTest {
+
+        @Test
+        void requestsAndAsyncWorkRunOnThreadPools() throws Exception {
+            assertThat(runsOnVirtualThread(tomcatExecutor())).isFalse();
+            assertThat(runsOnVirtualThread(webAsyncExecutor)).isFalse();
+            assertThat(runsOnVirtualThread(imageProcessingExecutor)).isFalse();
+        }
+    }
+
+    abstract static class ExecutorsUnderTest {
+
+        @Autowired
+        ServletWebServerApplicationContext context;
+
+        @Autowired
+        @Qualifier(WebAsyncConfig.WEB_ASYNC_EXECUTOR)
+        TaskExecutor webAsyncExecutor;
+
+        @Autowired
+        @Qualifier(ImageProcessingConfig.IMAGE_PROCESSING_EXECUTOR)
+        TaskExecutor imageProcessingExecutor;
+
+        Executor tomcatExecutor() {
+            TomcatWebServer webServer = (TomcatWebServer) context.getWebServer();
+            return webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+        }
+
+        static boolean runsOnVirtualThread(Executor executor) throws Exception {
+            CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+            executor.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+            return virtual.get(5, TimeUnit.SECONDS);
+        }
+    }
+}
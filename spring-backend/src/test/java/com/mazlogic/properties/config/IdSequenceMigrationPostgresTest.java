@@ -0,0 +1,91 @@
+package com.mazlogic.properties.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migration against a real PostgreSQL, whose identity and bigserial columns H2 only
+ * imitates. Needs a database to create a throwaway schema in:
+ * {@code mvn test -Dtest.postgres.url=jdbc:postgresql://localhost:5432/postgres
+ * -Dtest.postgres.username=postgres -Dtest.postgres.password=...}
+ */
+@EnabledIfSystemProperty(named = "test.postgres.url", matches = ".+")
+class IdSequenceMigrationPostgresTest {
+
+    private final String schema = "id_migration_" + System.nanoTime();
+
+    private JdbcTemplate admin;
+    private JdbcTemplate jdbcTemplate;
+    private IdSequenceMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        String url = System.getProperty("test.postgres.url");
+        String username = System.getProperty("test.postgres.username", "postgres");
+        String password = System.getProperty("test.postgres.password", "");
+        admin = new JdbcTemplate(new DriverManagerDataSource(url, username, password));
+        admin.execute("CREATE SCHEMA " + schema);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema, username, password);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migration = new IdSequenceMigration(dataSource);
+        ReflectionTestUtils.setField(migration, "allocationSize", 50);
+    }
+
+    @AfterEach
+    void dropSchema() {
+        admin.execute("DROP SCHEMA " + schema + " CASCADE");
+    }
+
+    @Test
+    void movesIdentityColumnsOntoASequencePastTheExistingIds() {
+        jdbcTemplate.execute("CREATE TABLE agents (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(50))");
+        jdbcTemplate.execute("INSERT INTO agents (name) VALUES ('a'), ('b'), ('c')");
+
+        migration.migrate();
+        migration.migrate();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT is_identity FROM information_schema.columns " +
+                "WHERE table_schema = ? AND table_name = 'agents' AND column_name = 'id'", String.class, schema))
+                .isEqualTo("NO");
+        assertThat(increment("agents_id_seq")).isEqualTo(50);
+        jdbcTemplate.execute("INSERT INTO agents (name) VALUES ('d')");
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM agents WHERE name = 'd'", Long.class)).isEqualTo(4);
+    }
+
+    @Test
+    void keepsTheSequenceOfBigserialColumns() {
+        jdbcTemplate.execute("CREATE TABLE properties (id BIGSERIAL PRIMARY KEY, title VARCHAR(50))");
+        jdbcTemplate.execute("INSERT INTO properties (title) VALUES ('a'), ('b')");
+
+        migration.migrate();
+        migration.migrate();
+
+        assertThat(increment("properties_id_seq")).isEqualTo(50);
+        jdbcTemplate.execute("INSERT INTO properties (title) VALUES ('c')");
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM properties WHERE title = 'c'", Long.class)).isGreaterThan(2);
+    }
+
+    @Test
+    void setsTheColumnDefaultsOfTablesCreatedAfterTheMigration() {
+        migration.migrate();
+        jdbcTemplate.execute("CREATE TABLE property_images (id BIGINT PRIMARY KEY, file_name VARCHAR(50))");
+
+        migration.afterSingletonsInstantiated();
+
+        jdbcTemplate.execute("INSERT INTO property_images (file_name) VALUES ('a.jpg')");
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM property_images", Long.class)).isEqualTo(1);
+    }
+
+    private long increment(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT increment::bigint FROM information_schema.sequences " +
+                "WHERE sequence_schema = ? AND sequence_name = ?", Long.class, schema, sequence);
+    }
+}
@@ -0,0 +1,101 @@
+package com.mazlogic.properties.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdSequenceMigrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private IdSequenceMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:migration-" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        migration = new IdSequenceMigration(dataSource);
+        ReflectionTestUtils.setField(migration, "allocationSize", 50);
+    }
+
+    @Test
+    void movesIdentityColumnsOntoASequencePastTheExistingIds() {
+        jdbcTemplate.execute("CREATE TABLE agents (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(50))");
+        jdbcTemplate.execute("INSERT INTO agents (name) VALUES ('a'), ('b'), ('c')");
+
+        migration.migrate();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT is_identity FROM information_schema.columns " +
+                "WHERE table_name = 'agents' AND column_name = 'id'", String.class)).isEqualTo("NO");
+        assertThat(increment("agents_id_seq")).isEqualTo(50);
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('agents_id_seq')", Long.class)).isEqualTo(4);
+        // Plain inserts draw from the sequence
+        jdbcTemplate.execute("INSERT INTO agents (name) VALUES ('d')");
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM agents WHERE name = 'd'", Long.class)).isEqualTo(54);
+    }
+
+    @Test
+    void keepsExistingSequencesAndOnlyAdjustsTheirIncrement() {
+        jdbcTemplate.execute("CREATE SEQUENCE properties_id_seq START WITH 1 INCREMENT BY 1");
+        jdbcTemplate.execute("CREATE TABLE properties (id BIGINT DEFAULT nextval('properties_id_seq') PRIMARY KEY, title VARCHAR(50))");
+        jdbcTemplate.execute("INSERT INTO properties (title) VALUES ('a'), ('b')");
+
+        migration.migrate();
+        migration.migrate();
+
+        assertThat(increment("properties_id_seq")).isEqualTo(50);
+        // The next block starts past the existing ids (where exactly depends on the database)
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('properties_id_seq')", Long.class)).isGreaterThan(2);
+    }
+
+    @Test
+    void createsSequencesWithTheConfiguredIncrementForTablesHibernateWillCreate() {
+        ReflectionTestUtils.setField(migration, "allocationSize", 200);
+
+        migration.migrate();
+
+        assertThat(increment("agents_id_seq")).isEqualTo(200);
+        assertThat(increment("properties_id_seq")).isEqualTo(200);
+        assertThat(increment("property_images_id_seq")).isEqualTo(200);
+        assertThat(jdbcTemplate.queryForObject("SELECT nextval('property_images_id_seq')", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void setsTheColumnDefaultsOfTablesCreatedAfterTheMigration() {
+        migration.migrate();
+        // As Hibernate creates it on a fresh database: no default
+        jdbcTemplate.execute("CREATE TABLE agents (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+
+        migration.afterSingletonsInstantiated();
+
+        jdbcTemplate.execute("INSERT INTO agents (name) VALUES ('a')");
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM agents WHERE name = 'a'", Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void keepsChangeFeedOffsetsWhenChangeRecordIdsMoveToASequence() {
+        jdbcTemplate.execute("CREATE TABLE change_records (id BIGINT PRIMARY KEY, entity_id BIGINT)");
+        jdbcTemplate.execute("INSERT INTO change_records (id, entity_id) VALUES (1, 10), (2, 20)");
+
+        migration.migrate();
+        migration.migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT feed_offset FROM change_records ORDER BY id", Long.class))
+                .containsExactly(1L, 2L);
+        jdbcTemplate.execute("INSERT INTO change_records (entity_id) VALUES (30)");
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM change_records WHERE entity_id = 30", Long.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT feed_offset FROM change_records WHERE entity_id = 30", Long.class)).isNull();
+    }
+
+    private long increment(String sequence) {
+        return jdbcTemplate.queryForObject(
+                "SELECT increment FROM information_schema.sequences WHERE sequence_name = ?", Long.class, sequence);
+    }
+}
@@ -0,0 +1,80 @@
+package com.mazlogic.properties.config;
+
+import com.mazlogic.properties.model.dto.AgentDTO;
+import com.mazlogic.properties.repository.AgentRepository;
+import com.mazlogic.properties.repository.PropertyImageRepository;
+import com.mazlogic.properties.service.AgentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The test replica is a second pool ("replica") on the same database, see application.yml
+@SpringBootTest
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private AgentService agentService;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private PropertyImageRepository propertyImageRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        agentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        agentService.createAgent(new AgentDTO(null, "Replica Agent", "replica@mazlogic.com", "(555) 000-0001", null));
+        long primaryBefore = acquisitions("primary");
+        long replicaBefore = acquisitions("replica");
+
+        assertThat(agentService.findAgentsByEmail("replica@mazlogic.com")).hasSize(1);
+
+        assertThat(acquisitions("replica")).isEqualTo(replicaBefore + 1);
+        assertThat(acquisitions("primary")).isEqualTo(primaryBefore);
+    }
+
+    @Test
+    void writeTransactionsUseThePrimary() {
+        long primaryBefore = acquisitions("primary");
+        long replicaBefore = acquisitions("replica");
+
+        AgentDTO created = agentService.createAgent(
+                new AgentDTO(null, "Primary Agent", "primary@mazlogic.com", "(555) 000-0002", null));
+        created.setPhone("(555) 000-0003");
+        agentService.updateAgent(created.getId(), created);
+
+        assertThat(acquisitions("primary")).isEqualTo(primaryBefore + 2);
+        assertThat(acquisitions("replica")).isEqualTo(replicaBefore);
+    }
+
+    @Test
+    void fileReferenceCountsAreReadFromThePrimary() {
+        long primaryBefore = acquisitions("primary");
+        long replicaBefore = acquisitions("replica");
+
+        // Outside any transaction, like the scheduled check before a file is deleted
+        assertThat(propertyImageRepository.countByFileName("ab/cd/abcd.jpg")).isZero();
+
+        assertThat(acquisitions("primary")).isEqualTo(primaryBefore + 1);
+        assertThat(acquisitions("replica")).isEqualTo(replicaBefore);
+    }
+
+    private long acquisitions(String pool) {
+        Timer timer = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        assertThat(timer).as("acquire timer of pool %s", pool).isNotNull();
+        return timer.count();
+    }
+}
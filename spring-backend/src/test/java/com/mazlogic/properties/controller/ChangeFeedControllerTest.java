@@ -0,0 +1,171 @@
+package com.mazlogic.properties.controller;
+
+import com.mazlogic.properties.TestData;
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.dto.AgentDTO;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.service.ChangeFeedService;
+import com.mazlogic.properties.service.PropertyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TestData testData;
+
+    private AgentDTO agent;
+
+    private long start;
+
+    @BeforeEach
+    void seed() {
+        Agent entity = testData.createAgent("Feed Agent", "feed@mazlogic.com");
+        agent = new AgentDTO(entity.getId(), entity.getName(), entity.getEmail(), entity.getPhone(), entity.getVersion());
+
+        start = changeFeedService.getLastOffset();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void writesAppearInCommitOrderWithTheirState() throws Exception {
+        PropertyDTO created = propertyService.createProperty(property("Feed Home"));
+        created.setPrice(2000.0);
+        propertyService.updateProperty(created.getId(), created);
+        propertyService.deleteProperty(created.getId());
+
+        MvcResult started = mockMvc.perform(get("/api/changes").param("after", String.valueOf(start)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(3)))
+                .andExpect(jsonPath("$.changes[0].offset").value(start + 1))
+                .andExpect(jsonPath("$.changes[0].entityType").value("PROPERTY"))
+                .andExpect(jsonPath("$.changes[0].changeType").value("CREATED"))
+                .andExpect(jsonPath("$.changes[0].payload.title").value("Feed Home"))
+                .andExpect(jsonPath("$.changes[1].changeType").value("UPDATED"))
+                .andExpect(jsonPath("$.changes[1].payload.price").value(2000.0))
+                .andExpect(jsonPath("$.changes[2].changeType").value("DELETED"))
+                .andExpect(jsonPath("$.changes[2].payload").value(nullValue()))
+                .andExpect(jsonPath("$.nextOffset").value(start + 3))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void limitPagesThroughTheFeed() throws Exception {
+        propertyService.createProperty(property("First"));
+        propertyService.createProperty(property("Second"));
+
+        MvcResult started = mockMvc.perform(get("/api/changes")
+                        .param("after", String.valueOf(start))
+                        .param("limit", "1"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(jsonPath("$.changes", hasSize(1)))
+                .andExpect(jsonPath("$.changes[0].payload.title").value("First"))
+                .andExpect(jsonPath("$.nextOffset").value(start + 1))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void longPollCompletesWhenAChangeCommits() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/changes")
+                        .param("after", String.valueOf(start))
+                        .param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        propertyService.createProperty(property("Late Arrival"));
+
+        started.getAsyncResult(5_000);
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(jsonPath("$.changes", hasSize(1)))
+                .andExpect(jsonPath("$.changes[0].payload.title").value("Late Arrival"));
+    }
+
+    @Test
+    void streamPushesChangesAsTheyCommit() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/changes/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        PropertyDTO created = propertyService.createProperty(property("Streamed Home"));
+
+        String body = awaitEvent(started, "event:change");
+        assertThat(body).startsWith("id:" + start + "\nevent:ready\n");
+        assertThat(body).contains("id:" + (start + 1) + "\nevent:change\ndata:{\"offset\":" + (start + 1)
+                + ",\"entityType\":\"PROPERTY\",\"changeType\":\"CREATED\",\"entityId\":" + created.getId());
+    }
+
+    @Test
+    void streamResumesAfterLastEventId() throws Exception {
+        propertyService.createProperty(property("Missed While Away"));
+
+        MvcResult started = mockMvc.perform(get("/api/changes/stream")
+                        .header("Last-Event-ID", String.valueOf(start)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(awaitEvent(started, "event:change")).contains("\"title\":\"Missed While Away\"");
+    }
+
+    // Waits until the event is complete, i.e. followed by the blank line that ends it
+    private static String awaitEvent(MvcResult result, String marker) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body = result.getResponse().getContentAsString();
+        while (!hasCompleteEvent(body, marker) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+
+    private static boolean hasCompleteEvent(String body, String marker) {
+        int index = body.indexOf(marker);
+        return index >= 0 && body.indexOf("\n\n", index) >= 0;
+    }
+
+    private PropertyDTO property(String title) {
+        PropertyDTO property = new PropertyDTO();
+        property.setTitle(title);
+        property.setDescription("Description");
+        property.setPrice(1000.0);
+        property.setType("sale");
+        property.setLocation("Location");
+        property.setAgent(agent);
+        return property;
+    }
+}
@@ -0,0 +1,289 @@
+package com.mazlogic.properties.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mazlogic.properties.TestData;
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.ImageStatus;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.PropertyImage;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.model.dto.PropertyImageDTO;
+import com.mazlogic.properties.repository.PropertyImageRepository;
+import com.mazlogic.properties.search.PropertySearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class PropertyControllerTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PropertyImageRepository propertyImageRepository;
+
+    @Autowired
+    private PropertySearchIndex propertySearchIndex;
+
+    @Autowired
+    private TestData testData;
+
+    private Agent agent;
+
+    private Property property;
+
+    @BeforeEach
+    void seed() {
+        agent = testData.createAgent("Controller Agent", "controller@mazlogic.com");
+        property = testData.createProperty(TestData.property("Harbour cottage", agent));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void matchingETagIsAnsweredWithNotModified() throws Exception {
+        String propertyETag = eTag("/api/properties/" + property.getId());
+        String pageETag = eTag("/api/properties?size=10");
+        String agentETag = eTag("/api/agents/" + agent.getId());
+
+        for (String[] request : new String[][] {
+                {"/api/properties/" + property.getId(), propertyETag},
+                {"/api/properties?size=10", pageETag},
+                {"/api/agents/" + agent.getId(), agentETag}}) {
+            mockMvc.perform(get(request[0]).header(HttpHeaders.IF_NONE_MATCH, request[1]))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, request[1]))
+                    .andExpect(content().string(""));
+        }
+    }
+
+    @Test
+    void updatingThePropertyChangesItsETag() throws Exception {
+        String propertyETag = eTag("/api/properties/" + property.getId());
+        String pageETag = eTag("/api/properties?size=10");
+        PropertyDTO dto = read("/api/properties/" + property.getId());
+        dto.setPrice(2000.0);
+
+        String updated = mockMvc.perform(put("/api/properties/" + property.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String newETag = changedETag("/api/properties/" + property.getId(), propertyETag);
+        // The version in the response is the one the new ETag is derived from
+        assertThat(newETag).contains("." + objectMapper.readValue(updated, PropertyDTO.class).getVersion() + ".");
+        changedETag("/api/properties?size=10", pageETag);
+    }
+
+    @Test
+    void updatingTheAgentChangesTheETagOfTheirProperties() throws Exception {
+        String propertyETag = eTag("/api/properties/" + property.getId());
+        String pageETag = eTag("/api/properties?size=10");
+
+        mockMvc.perform(put("/api/agents/" + agent.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed Agent\",\"email\":\"controller@mazlogic.com\",\"phone\":\"(555) 000-0001\"}"))
+                .andExpect(status().isOk());
+
+        changedETag("/api/properties/" + property.getId(), propertyETag);
+        changedETag("/api/properties?size=10", pageETag);
+    }
+
+    @Test
+    void uploadingAndDeletingAnImageChangeThePropertyETag() throws Exception {
+        String beforeUpload = eTag("/api/properties/" + property.getId());
+
+        String uploaded = mockMvc.perform(multipart("/api/properties/" + property.getId() + "/images")
+                        .file(new MockMultipartFile("file", "front.jpg", "image/jpeg", jpeg())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long imageId = objectMapper.readValue(uploaded, PropertyImageDTO.class).getId();
+        awaitProcessed(imageId);
+
+        String afterUpload = changedETag("/api/properties/" + property.getId(), beforeUpload);
+
+        mockMvc.perform(delete("/api/properties/images/" + imageId))
+                .andExpect(status().isNoContent());
+
+        changedETag("/api/properties/" + property.getId(), afterUpload);
+    }
+
+    @Test
+    void cursorsPageThroughEveryPropertyOnceUntilTheLastPage() throws Exception {
+        List<Property> properties = new ArrayList<>(List.of(property));
+        for (double price : new double[] {3000.0, 1000.0, 2000.0, 1000.0}) {
+            Property other = TestData.property("Property at " + price, agent);
+            other.setPrice(price);
+            properties.add(testData.createProperty(other));
+        }
+        String url = "/api/properties/agent/" + agent.getId() + "?size=2&sort=price";
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = json(cursor == null ? url : url + "&cursor=" + cursor);
+            page.get("content").forEach(row -> ids.add(row.get("id").asLong()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            assertThat(page.get("hasNext").asBoolean()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        // Equal prices are ordered by id, so no row is skipped or repeated across pages
+        assertThat(ids).containsExactlyElementsOf(properties.stream()
+                .sorted(Comparator.comparing(Property::getPrice).thenComparing(Property::getId))
+                .map(Property::getId)
+                .toList());
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void cursorsOfAnotherSortOrderAreRejected() throws Exception {
+        testData.createProperty(TestData.property("Second property", agent));
+        String cursor = json("/api/properties?size=1&sort=price").get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/properties?size=1&sort=id&cursor=" + cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/properties?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void summariesCarryTheAgentNameAndCardImageUrlsInDisplayOrder() throws Exception {
+        PropertyImage withCard = TestData.image("ab/cd/second.jpg", 2);
+        withCard.setCardFileName("ab/cd/second-card.jpg");
+        withCard.setProperty(property);
+        propertyImageRepository.save(withCard);
+        testData.createImage(property, "ab/cd/first.jpg", 1);
+
+        JsonNode page = json("/api/properties/summary?agentId=" + agent.getId());
+
+        assertThat(page.get("content")).hasSize(1);
+        JsonNode summary = page.get("content").get(0);
+        assertThat(summary.get("id").asLong()).isEqualTo(property.getId());
+        assertThat(summary.get("title").asText()).isEqualTo("Harbour cottage");
+        assertThat(summary.get("agentId").asLong()).isEqualTo(agent.getId());
+        assertThat(summary.get("agentName").asText()).isEqualTo("Controller Agent");
+        // Images without a card variant fall back to the original
+        assertThat(summary.get("imageUrls")).extracting(JsonNode::asText)
+                .containsExactly("http://localhost:8081/images/ab/cd/first.jpg",
+                        "http://localhost:8081/images/ab/cd/second-card.jpg");
+        assertThat(summary.has("description")).isFalse();
+        assertThat(summary.has("agent")).isFalse();
+    }
+
+    @Test
+    void queryAppliesEveryFilterTogether() throws Exception {
+        Agent otherAgent = testData.createAgent("Other Agent", "other@mazlogic.com");
+        Property match = listing("Town house", "sale", 2500.0, "Harbour Street", agent);
+        listing("Town house to let", "rent", 2500.0, "Harbour Street", agent);
+        listing("Villa", "sale", 5000.0, "Harbour Street", agent);
+        Property inland = listing("Town house elsewhere", "sale", 2500.0, "Inland", agent);
+        listing("Other agent's town house", "sale", 2500.0, "Harbour Street", otherAgent);
+        // Location and keyword filters are served by the search index
+        propertySearchIndex.rebuild();
+
+        String filters = "type=sale&agentId=" + agent.getId() + "&minPrice=2000&maxPrice=4000";
+        assertThat(ids("/api/properties/query?" + filters))
+                .containsExactlyInAnyOrder(match.getId(), inland.getId());
+        assertThat(ids("/api/properties/query?" + filters + "&location=harb")).containsExactly(match.getId());
+        assertThat(ids("/api/properties/query?" + filters + "&keyword=town&location=harbour"))
+                .containsExactly(match.getId());
+        mockMvc.perform(get("/api/properties/query?minPrice=3000&maxPrice=2000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String eTag(String url) throws Exception {
+        String eTag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).as("ETag of %s", url).isNotNull();
+        return eTag;
+    }
+
+    // The stale ETag no longer matches: the full response comes back with a new one
+    private String changedETag(String url, String staleETag) throws Exception {
+        String eTag = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, staleETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull().isNotEqualTo(staleETag);
+        return eTag;
+    }
+
+    private Property listing(String title, String type, double price, String location, Agent owner) {
+        Property listing = TestData.property(title, owner);
+        listing.setType(type);
+        listing.setPrice(price);
+        listing.setLocation(location);
+        return testData.createProperty(listing);
+    }
+
+    private List<Long> ids(String url) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        json(url).get("content").forEach(row -> ids.add(row.get("id").asLong()));
+        return ids;
+    }
+
+    private JsonNode json(String url) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private PropertyDTO read(String url) throws Exception {
+        return objectMapper.readValue(
+                mockMvc.perform(get(url)).andReturn().getResponse().getContentAsString(), PropertyDTO.class);
+    }
+
+    // Waits for the background processing, so its update does not land in the middle of the test
+    private void awaitProcessed(Long imageId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (propertyImageRepository.findById(imageId).orElseThrow().getStatus() == ImageStatus.PENDING
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private static byte[] jpeg() throws Exception {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB), "jpg", content);
+        return content.toByteArray();
+    }
+}
@@ -0,0 +1,135 @@
+package com.mazlogic.properties.controller;
+
+import com.mazlogic.properties.TestData;
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.repository.PropertyRepository;
+import com.mazlogic.properties.service.PropertyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class PropertyExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private TestData testData;
+
+    private final List<Long> propertyIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        Agent agent = testData.createAgent("Export Agent", "export@mazlogic.com");
+        for (int i = 0; i < 3; i++) {
+            Property property = TestData.property("Property " + i, agent);
+            property.setDescription("Line one\nline two, with a comma");
+            property.setPrice(1000.0 + i);
+            property.setLocation("Location " + i);
+            propertyIds.add(testData.createProperty(property).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void streamsAllRowsAsNdjson() throws Exception {
+        String body = export("/api/properties/export", "application/x-ndjson");
+
+        String[] lines = body.split("\n", -1);
+        assertThat(lines).hasSize(4);
+        assertThat(lines[3]).isEmpty();
+        assertThat(lines[0]).startsWith("{\"id\":" + propertyIds.get(0) + ",\"version\":0,\"updatedAt\":\"");
+        assertThat(lines[2]).contains("\"agentEmail\":\"export@mazlogic.com\"");
+    }
+
+    @Test
+    void streamsCsvWithHeaderAndQuotedFields() throws Exception {
+        String body = export("/api/properties/export?format=csv", "text/csv");
+
+        assertThat(body).startsWith(
+                "id,version,updatedAt,title,description,price,type,location,agentId,agentName,agentEmail,deleted\n");
+        assertThat(body).contains(",\"Line one\nline two, with a comma\",1001.0,sale,");
+    }
+
+    @Test
+    void exportsOnlyRowsChangedSinceTheGivenInstant() throws Exception {
+        Instant since = propertyRepository.findById(propertyIds.get(2)).orElseThrow().getUpdatedAt();
+        Property changed = propertyRepository.findById(propertyIds.get(0)).orElseThrow();
+        changed.setPrice(900.0);
+        propertyRepository.save(changed);
+
+        String body = export("/api/properties/export?since=" + since, "application/x-ndjson");
+
+        assertThat(body.split("\n")).singleElement()
+                .satisfies(line -> assertThat(line).contains("\"id\":" + propertyIds.get(0) + ",\"version\":1,"));
+    }
+
+    @Test
+    void incrementalExportEndsWithTombstonesForDeletedRows() throws Exception {
+        Instant since = propertyRepository.findById(propertyIds.get(2)).orElseThrow().getUpdatedAt();
+        propertyService.deleteProperty(propertyIds.get(1));
+
+        String body = export("/api/properties/export?since=" + since, "application/x-ndjson");
+
+        assertThat(body.split("\n")).singleElement()
+                .satisfies(line -> assertThat(line)
+                        .startsWith("{\"id\":" + propertyIds.get(1) + ",\"version\":null,\"updatedAt\":\"")
+                        .endsWith(",\"deleted\":true}"));
+    }
+
+    @Test
+    void sinceOlderThanTheChangeRetentionIsRejected() throws Exception {
+        mockMvc.perform(get("/api/properties/export?since=" + Instant.now().minus(Duration.ofDays(8))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/api/properties/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(String url, String contentType) throws Exception {
+        MvcResult started = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", contentType))
+                .andExpect(header().exists("X-Export-Watermark"))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
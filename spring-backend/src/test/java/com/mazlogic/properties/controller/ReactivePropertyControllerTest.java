@@ -0,0 +1,146 @@
+package com.mazlogic.properties.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mazlogic.properties.TestData;
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.repository.PropertyRepository;
+import com.mazlogic.properties.search.PropertySearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// application.reactive.batch-size is 2 in tests, so every stream spans several batches
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestData.class)
+class ReactivePropertyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private PropertySearchIndex propertySearchIndex;
+
+    private final List<Long> propertyIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        Agent agent = testData.createAgent("Stream Agent", "stream@mazlogic.com");
+        double[] prices = {5000.0, 1000.0, 4000.0, 2000.0, 3000.0};
+        for (int i = 0; i < prices.length; i++) {
+            Property property = TestData.property(i == 3 ? "Harbour cottage" : "Property " + i, agent);
+            property.setDescription("Description " + i);
+            property.setPrice(prices[i]);
+            property.setType(i % 2 == 0 ? "sale" : "rent");
+            property.setLocation("Location " + i);
+            property = testData.createProperty(property);
+            propertyIds.add(property.getId());
+            if (i == 2) {
+                for (int order = 2; order >= 1; order--) {
+                    testData.createImage(property, "image-" + order + ".jpg", order);
+                }
+            }
+        }
+        propertySearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void streamsEveryPropertyWithItsImagesAsNdjson() throws Exception {
+        List<JsonNode> properties = stream("/api/properties");
+
+        assertThat(properties).extracting(property -> property.get("id").asLong()).containsExactlyElementsOf(propertyIds);
+        JsonNode withImages = properties.get(2);
+        assertThat(withImages.get("agent").get("email").asText()).isEqualTo("stream@mazlogic.com");
+        assertThat(withImages.get("images")).extracting(image -> image.get("displayOrder").asInt()).containsExactly(1, 2);
+        assertThat(withImages.get("images").get(0).get("status").asText()).isEqualTo("READY");
+        assertThat(properties.get(0).get("images")).isEmpty();
+    }
+
+    @Test
+    void filtersSortsAndResumesAfterACursor() throws Exception {
+        MvcResult page = mockMvc.perform(get("/api/properties/query?type=sale&sort=price&size=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        String cursor = objectMapper.readTree(page.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        List<JsonNode> rest = stream("/api/properties/query?type=sale&sort=price&cursor=" + cursor);
+
+        assertThat(rest).extracting(property -> property.get("price").asDouble()).containsExactly(4000.0, 5000.0);
+    }
+
+    @Test
+    void streamsKeywordMatchesFromTheSearchIndex() throws Exception {
+        List<JsonNode> matches = stream("/api/properties/search?keyword=harbour");
+
+        assertThat(matches).extracting(property -> property.get("id").asLong()).containsExactly(propertyIds.get(3));
+    }
+
+    @Test
+    void keepsServingPagesToJsonClients() throws Exception {
+        mockMvc.perform(get("/api/properties?size=2"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void rejectsInvalidArgumentsBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/properties/query?minPrice=10&maxPrice=5").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("minPrice must not be greater than maxPrice"));
+    }
+
+    private List<JsonNode> stream(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+}
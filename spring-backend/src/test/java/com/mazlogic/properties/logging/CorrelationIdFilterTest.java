@@ -0,0 +1,72 @@
+package com.mazlogic.properties.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    @Test
+    void reusesValidRequestIdAndClearsMdcAfterwards() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/properties");
+        request.addHeader(CorrelationIdFilter.HEADER, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(requestIdSeenBy(request, response)).isEqualTo("abc-123");
+        assertThat(response.getHeader(CorrelationIdFilter.HEADER)).isEqualTo("abc-123");
+        assertThat(MDC.get(CorrelationIdFilter.MDC_KEY)).isNull();
+    }
+
+    @Test
+    void generatesIdWhenHeaderIsMissingOrUnsafe() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/properties");
+        request.addHeader(CorrelationIdFilter.HEADER, "forged\nline");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String id = requestIdSeenBy(request, response);
+
+        assertThat(id).isNotEqualTo("forged\nline").matches("[0-9a-f-]{36}");
+        assertThat(response.getHeader(CorrelationIdFilter.HEADER)).isEqualTo(id);
+    }
+
+    @Test
+    void taskDecoratorCarriesRequestIdToWorkerThreads() throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        MDC.put(CorrelationIdFilter.MDC_KEY, "abc-123");
+        Runnable task;
+        try {
+            task = new MdcTaskDecorator().decorate(() -> seen.set(MDC.get(CorrelationIdFilter.MDC_KEY)));
+        } finally {
+            MDC.clear();
+        }
+
+        Thread worker = new Thread(task);
+        worker.start();
+        worker.join();
+
+        assertThat(seen.get()).isEqualTo("abc-123");
+    }
+
+    private String requestIdSeenBy(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                seen.set(MDC.get(CorrelationIdFilter.MDC_KEY));
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return seen.get();
+    }
+}
@@ -0,0 +1,38 @@
+package com.mazlogic.properties.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpointExposesServiceDatabaseAndQueryMetrics() throws Exception {
+        mockMvc.perform(get("/api/properties")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("service_calls_seconds_count{class=\"com.mazlogic.properties.service.PropertyService\"")
+                .contains("http_server_requests_queries_count{method=\"GET\",uri=\"/api/properties\"")
+                .contains("hikaricp_connections_active{pool=\"primary\"}")
+                .contains("hikaricp_connections_active{pool=\"replica\"}")
+                .contains("hibernate_entities_loads_total")
+                .contains("hibernate_query_executions_total");
+    }
+}
@@ -0,0 +1,134 @@
+package com.mazlogic.properties.search;
+
+import com.mazlogic.properties.TestData;
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.repository.PropertyFilter;
+import com.mazlogic.properties.repository.PropertyRepository;
+import com.mazlogic.properties.repository.PropertySort;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestData.class)
+class PropertySearchIndexTest {
+
+    @Autowired
+    private PropertySearchIndex propertySearchIndex;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Agent agent;
+
+    @BeforeEach
+    void seed() {
+        agent = testData.createAgent("Indexed Agent", "indexed@mazlogic.com");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void titleMatchesRankAboveLocationMatchesAboveDescriptionMatches() {
+        Property inDescription = property("Cottage", "Inland", "A short walk to the harbour");
+        Property inLocation = property("Cottage", "Harbour Street", "Description");
+        Property inTitle = property("Harbour cottage", "Inland", "Description");
+        propertySearchIndex.rebuild();
+
+        assertThat(search("harbour")).containsExactly(inTitle.getId(), inLocation.getId(), inDescription.getId());
+    }
+
+    @Test
+    void exactMatchesRankAbovePrefixMatches() {
+        Property prefix = property("Harbourside flat", "Inland", "Description");
+        Property exact = property("Harbour flat", "Inland", "Description");
+        propertySearchIndex.rebuild();
+
+        assertThat(search("harbour")).containsExactly(exact.getId(), prefix.getId());
+    }
+
+    @Test
+    void reconcileIndexesPropertiesChangedOutsideTheApplication() {
+        propertySearchIndex.rebuild();
+        // Saved through the repository, so no event reaches the index
+        Property added = property("Lighthouse", "Coast", "Description");
+        propertySearchIndex.reconcile();
+        assertThat(search("lighthouse")).containsExactly(added.getId());
+
+        added.setTitle("Windmill");
+        propertyRepository.save(added);
+        propertySearchIndex.reconcile();
+        assertThat(search("lighthouse")).isEmpty();
+        assertThat(search("windmill")).containsExactly(added.getId());
+
+        propertyRepository.deleteById(added.getId());
+        propertySearchIndex.reconcile();
+        assertThat(search("windmill")).isEmpty();
+    }
+
+    @Test
+    void updatesAreCommittedToTheIndexDirectory(@TempDir Path indexDirectory) throws IOException {
+        PropertySearchIndex index = new PropertySearchIndex(propertyRepository);
+        ReflectionTestUtils.setField(index, "indexDirectory", indexDirectory.toString());
+        ReflectionTestUtils.setField(index, "watermarkLag", Duration.ofMinutes(1));
+        index.init();
+        try {
+            PropertyDTO property = new PropertyDTO();
+            property.setId(1L);
+            property.setTitle("Committed");
+            index.index(property);
+            index.commit();
+            assertThat(committedDocuments(indexDirectory)).isEqualTo(1);
+
+            index.remove(1L);
+            index.commit();
+            assertThat(committedDocuments(indexDirectory)).isZero();
+        } finally {
+            index.close();
+        }
+    }
+
+    // Reads the last commit on disk, independently of the writer
+    private static int committedDocuments(Path indexDirectory) throws IOException {
+        try (Directory directory = FSDirectory.open(indexDirectory);
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            assertThat(reader.getIndexCommit().getUserData()).containsKey("watermark");
+            return reader.numDocs();
+        }
+    }
+
+    private Property property(String title, String location, String description) {
+        Property property = TestData.property(title, agent);
+        property.setLocation(location);
+        property.setDescription(description);
+        return testData.createProperty(property);
+    }
+
+    private List<Long> search(String keyword) {
+        return propertySearchIndex.search(PropertyFilter.byKeyword(keyword), PropertySort.RELEVANCE, null, 10)
+                .stream().map(PropertySearchHit::getPropertyId).toList();
+    }
+}
@@ -0,0 +1,154 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.TestData;
+import com.mazlogic.properties.event.PropertyChangedEvent.ChangeType;
+import com.mazlogic.properties.model.ChangeRecord.EntityType;
+import com.mazlogic.properties.model.ImageStatus;
+import com.mazlogic.properties.model.dto.AgentDTO;
+import com.mazlogic.properties.model.dto.ChangeRecordDTO;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.model.dto.PropertyImageDTO;
+import com.mazlogic.properties.repository.AgentRepository;
+import com.mazlogic.properties.repository.PropertyFilter;
+import com.mazlogic.properties.repository.PropertyImageRepository;
+import com.mazlogic.properties.repository.PropertySort;
+import com.mazlogic.properties.search.PropertySearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Import(TestData.class)
+class AgentServiceTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private AgentService agentService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyImageService propertyImageService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private PropertySearchIndex propertySearchIndex;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private PropertyImageRepository propertyImageRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Value("${application.storage.image-directory}")
+    private String imageDirectory;
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void updatedAgentCarriesTheIncrementedVersion() {
+        AgentDTO agent = agentService.createAgent(
+                new AgentDTO(null, "Versioned Agent", "versioned@mazlogic.com", "(555) 000-0000", null));
+        agent.setPhone("(555) 000-0001");
+
+        AgentDTO updated = agentService.updateAgent(agent.getId(), agent);
+
+        // The version its ETag is derived from, so it matches the next read
+        assertThat(updated.getVersion()).isEqualTo(agent.getVersion() + 1);
+        assertThat(agentService.getAgentById(agent.getId()).getVersion()).isEqualTo(updated.getVersion());
+    }
+
+    @Test
+    void deletingAnAgentRecordsTheDeletionOfTheirPropertiesAndImages() throws Exception {
+        AgentDTO agent = agentService.createAgent(
+                new AgentDTO(null, "Departing Agent", "departing@mazlogic.com", "(555) 000-0000", null));
+        PropertyDTO property = propertyService.createProperty(property("Lighthouse keeper's cottage", agent));
+        PropertyImageDTO image = upload(property.getId());
+        String fileName = awaitProcessed(image.getId());
+        assertThat(search("lighthouse")).hasSize(1);
+        long start = changeFeedService.getLastOffset();
+
+        agentService.deleteAgent(agent.getId());
+
+        List<ChangeRecordDTO> changes = changeFeedService.getChanges(start, 10).getChanges();
+        assertThat(changes).extracting(ChangeRecordDTO::getEntityType, ChangeRecordDTO::getChangeType,
+                        ChangeRecordDTO::getEntityId)
+                .containsExactly(
+                        tuple(EntityType.IMAGE, ChangeType.DELETED, image.getId()),
+                        tuple(EntityType.PROPERTY, ChangeType.DELETED, property.getId()));
+        assertThat(search("lighthouse")).isEmpty();
+        // The files go once the deletion grace period has passed
+        Path file = Paths.get(imageDirectory).resolve(fileName);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (Files.exists(file) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(file).doesNotExist();
+        assertThat(agentRepository.existsById(agent.getId())).isFalse();
+    }
+
+    private List<?> search(String keyword) {
+        return propertySearchIndex.search(PropertyFilter.byKeyword(keyword), PropertySort.RELEVANCE, null, 10);
+    }
+
+    private PropertyImageDTO upload(Long propertyId) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB), "jpg", content);
+        MockMultipartFile file = new MockMultipartFile("file", "cottage.jpg", "image/jpeg", content.toByteArray());
+        StoredFile stored = fileStorageService.storeFile(file);
+        return propertyImageService.addStoredImage(propertyId, stored, file.getOriginalFilename(),
+                file.getContentType(), "Front", 0);
+    }
+
+    // Waits for the background processing, so its update does not land in the middle of the test
+    private String awaitProcessed(Long imageId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (propertyImageRepository.findById(imageId).orElseThrow().getStatus() == ImageStatus.PENDING
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        return propertyImageRepository.findById(imageId).orElseThrow().getFileName();
+    }
+
+    private static PropertyDTO property(String title, AgentDTO agent) {
+        PropertyDTO property = new PropertyDTO();
+        property.setTitle(title);
+        property.setDescription("Description");
+        property.setPrice(1000.0);
+        property.setType("sale");
+        property.setLocation("Location");
+        property.setAgent(agent);
+        property.setImages(new ArrayList<>());
+        return property;
+    }
+}
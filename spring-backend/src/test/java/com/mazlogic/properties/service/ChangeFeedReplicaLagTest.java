@@ -0,0 +1,140 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.model.dto.AgentDTO;
+import com.mazlogic.properties.model.dto.ChangeFeedDTO;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.convention.TestBean;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against a replica that stops replicating once the test starts, so any feed read that
+ * reaches it misses the change just written.
+ */
+@SpringBootTest
+class ChangeFeedReplicaLagTest {
+
+    private static final String OPTIONS = ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    // The test primary, see application.yml
+    private static final String PRIMARY_URL = "jdbc:h2:mem:mazlogic_properties" + OPTIONS;
+
+    @TestBean(name = "replicaDataSource", methodName = "laggingReplica")
+    private HikariDataSource replica;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private AgentService agentService;
+
+    static HikariDataSource laggingReplica() {
+        return new LaggingReplica();
+    }
+
+    @BeforeEach
+    void catchUp() throws SQLException {
+        ((LaggingReplica) replica).catchUp();
+    }
+
+    @Test
+    void readsTheFeedFromThePrimary() {
+        AgentDTO agent = agentService.createAgent(
+                new AgentDTO(null, "Lag Agent", "lag@mazlogic.com", "(555) 000-0004", null));
+        long start = changeFeedService.getLastOffset();
+        PropertyDTO created = propertyService.createProperty(property(agent));
+        try {
+            JdbcTemplate onReplica = new JdbcTemplate(replica);
+            assertThat(onReplica.queryForObject("SELECT COUNT(*) FROM change_records WHERE feed_offset > ?", Long.class, start))
+                    .as("changes visible on the replica").isZero();
+
+            assertThat(changeFeedService.getLastOffset()).isGreaterThan(start);
+            assertThat(changeFeedService.getChanges(start, 10).getChanges())
+                    .extracting("entityId").containsExactly(created.getId());
+
+            DeferredResult<ChangeFeedDTO> poll = changeFeedService.pollChanges(start, 10, Duration.ofSeconds(5));
+            assertThat(poll.hasResult()).as("answered without waiting").isTrue();
+            assertThat(((ChangeFeedDTO) poll.getResult()).getChanges())
+                    .extracting("entityId").containsExactly(created.getId());
+        } finally {
+            propertyService.deleteProperty(created.getId());
+            agentService.deleteAgent(agent.getId());
+        }
+    }
+
+    private static PropertyDTO property(AgentDTO agent) {
+        PropertyDTO property = new PropertyDTO();
+        property.setTitle("Lagging Replica Home");
+        property.setDescription("Written while the replica is behind");
+        property.setPrice(1000.0);
+        property.setType("rent");
+        property.setLocation("Cape Town");
+        property.setAgent(agent);
+        property.setImages(new ArrayList<>());
+        return property;
+    }
+
+    /**
+     * A replica on a database of its own, holding a copy of the primary as of the last
+     * {@link #catchUp} (the first made on demand, once the schema exists).
+     */
+    static class LaggingReplica extends HikariDataSource {
+
+        private static final String URL = "jdbc:h2:mem:lagging_replica" + OPTIONS;
+
+        private volatile boolean copied;
+
+        LaggingReplica() {
+            setJdbcUrl(URL);
+            setUsername("sa");
+            setPassword("");
+            setPoolName("replica");
+            setReadOnly(true);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!copied) {
+                catchUp();
+            }
+            return super.getConnection();
+        }
+
+        synchronized void catchUp() throws SQLException {
+            List<String> script = new ArrayList<>();
+            try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+                 Statement statement = primary.createStatement();
+                 ResultSet rows = statement.executeQuery("SCRIPT")) {
+                while (rows.next()) {
+                    script.add(rows.getString(1));
+                }
+            }
+            try (Connection copy = DriverManager.getConnection(URL, "sa", "");
+                 Statement statement = copy.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                for (String sql : script) {
+                    statement.execute(sql);
+                }
+            }
+            copied = true;
+        }
+    }
+}
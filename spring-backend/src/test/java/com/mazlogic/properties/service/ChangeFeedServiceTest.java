@@ -0,0 +1,164 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.TestData;
+import com.mazlogic.properties.event.PropertyChangedEvent.ChangeType;
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.ChangeRecord;
+import com.mazlogic.properties.model.ChangeRecord.EntityType;
+import com.mazlogic.properties.model.dto.AgentDTO;
+import com.mazlogic.properties.model.dto.ChangeRecordDTO;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.repository.ChangeRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestData.class)
+class ChangeFeedServiceTest {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private ChangeFeedSequencer changeFeedSequencer;
+
+    @Autowired
+    private ChangeRecordRepository changeRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private AgentDTO agent;
+
+    @BeforeEach
+    void seed() {
+        Agent entity = testData.createAgent("Sequenced Agent", "sequenced@mazlogic.com");
+        agent = new AgentDTO(entity.getId(), entity.getName(), entity.getEmail(), entity.getPhone(), entity.getVersion());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void concurrentWritersEachAppearOnceInIncreasingOffsetOrder() throws Exception {
+        long start = changeFeedService.getLastOffset();
+        List<Long> created = new ArrayList<>();
+        try (ExecutorService writers = Executors.newFixedThreadPool(8)) {
+            List<Future<PropertyDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String title = "Concurrent " + i;
+                results.add(writers.submit(() -> propertyService.createProperty(property(title))));
+            }
+            for (Future<PropertyDTO> result : results) {
+                created.add(result.get().getId());
+            }
+        }
+        changeFeedService.sequence();
+
+        List<ChangeRecordDTO> changes = changeFeedService.getChanges(start, 100).getChanges();
+        assertThat(changes).extracting(ChangeRecordDTO::getEntityId).containsExactlyInAnyOrderElementsOf(created);
+        assertThat(changes).extracting(ChangeRecordDTO::getOffset).isSorted().doesNotHaveDuplicates();
+        assertThat(changeFeedService.getLastOffset()).isEqualTo(changes.get(changes.size() - 1).getOffset());
+    }
+
+    @Test
+    void recordsLeftUnnumberedAreSequencedByTheScheduledPass() {
+        long start = changeFeedService.getLastOffset();
+        // As left behind by a writer that went down between its commit and numbering the records
+        changeRecordRepository.save(record(Instant.now()));
+
+        changeFeedService.sequence();
+
+        assertThat(changeFeedService.getChanges(start, 10).getChanges())
+                .extracting(ChangeRecordDTO::getOffset).containsExactly(start + 1);
+    }
+
+    @Test
+    void concurrentPassesCreateAMissingHeadOnce() throws Exception {
+        changeRecordRepository.save(record(Instant.now()));
+        changeFeedService.sequence();
+        long start = changeFeedService.getLastOffset();
+        // As on a database where no pass has run yet, but continuing from the numbered records
+        jdbcTemplate.update("DELETE FROM change_feed_head");
+        for (int i = 0; i < 3; i++) {
+            changeRecordRepository.save(record(Instant.now()));
+        }
+
+        CountDownLatch ready = new CountDownLatch(2);
+        Callable<Long> pass = () -> {
+            ready.countDown();
+            ready.await();
+            return changeFeedSequencer.sequence();
+        };
+        try (ExecutorService passes = Executors.newFixedThreadPool(2)) {
+            Future<Long> first = passes.submit(pass);
+            Future<Long> second = passes.submit(pass);
+            assertThat(List.of(first.get(), second.get())).contains(start + 3);
+        }
+
+        assertThat(changeFeedService.getChanges(start, 10).getChanges())
+                .extracting(ChangeRecordDTO::getOffset).containsExactly(start + 1, start + 2, start + 3);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_offset FROM change_feed_head", Long.class))
+                .isEqualTo(start + 3);
+    }
+
+    @Test
+    void pruneDeletesChangesOlderThanTheRetentionWindow() {
+        long start = changeFeedService.getLastOffset();
+        changeRecordRepository.save(record(Instant.now().minus(Duration.ofDays(8))));
+        changeRecordRepository.save(record(Instant.now()));
+        changeFeedService.sequence();
+
+        changeFeedService.prune();
+
+        assertThat(changeFeedService.getChanges(start, 10).getChanges())
+                .extracting(ChangeRecordDTO::getOffset).containsExactly(start + 2);
+        assertThat(changeFeedService.getLastOffset()).isEqualTo(start + 2);
+    }
+
+    private static ChangeRecord record(Instant createdAt) {
+        ChangeRecord record = new ChangeRecord();
+        record.setEntityType(EntityType.PROPERTY);
+        record.setChangeType(ChangeType.DELETED);
+        record.setEntityId(-1L);
+        record.setPropertyId(-1L);
+        record.setCreatedAt(createdAt);
+        return record;
+    }
+
+    private PropertyDTO property(String title) {
+        PropertyDTO property = new PropertyDTO();
+        property.setTitle(title);
+        property.setDescription("Description");
+        property.setPrice(1000.0);
+        property.setType("sale");
+        property.setLocation("Location");
+        property.setAgent(agent);
+        return property;
+    }
+}
@@ -0,0 +1,125 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.exception.UploadTooLargeException;
+import com.mazlogic.properties.storage.LocalImageStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileStorageServiceTest {
+
+    @TempDir
+    Path storageDirectory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = storageService(new LocalImageStore(storageDirectory.toString()));
+    }
+
+    @Test
+    void storeComputesSizeAndHashInTheSamePass() throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+
+        StoredFile storedFile = fileStorageService.store(new ByteArrayInputStream(content), "house.jpg");
+
+        String digest = sha256(content);
+        assertThat(storedFile.getFileName())
+                .isEqualTo(digest.substring(0, 2) + "/" + digest.substring(2, 4) + "/" + digest + ".jpg");
+        assertThat(storedFile.getSize()).isEqualTo(content.length);
+        assertThat(storedFile.getSha256()).isEqualTo(digest);
+        assertThat(Files.readAllBytes(storageDirectory.resolve(storedFile.getFileName()))).isEqualTo(content);
+        assertThat(listFiles()).containsExactly(storedFile.getFileName());
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws Exception {
+        byte[] content = "same photo".getBytes();
+
+        StoredFile first = fileStorageService.store(new ByteArrayInputStream(content), "front.JPG");
+        StoredFile second = fileStorageService.store(new ByteArrayInputStream(content), "copy.jpg");
+
+        assertThat(second.getFileName()).isEqualTo(first.getFileName());
+        assertThat(listFiles()).containsExactly(first.getFileName());
+    }
+
+    @Test
+    void onlyShortAlphanumericExtensionsAreKept() {
+        String digest = "abcd".repeat(16);
+        String base = "ab/cd/" + digest;
+
+        assertThat(FileStorageService.contentAddressedName(digest, "front.JPEG")).isEqualTo(base + ".jpeg");
+        assertThat(FileStorageService.contentAddressedName(digest, "plans.tar.gz")).isEqualTo(base + ".gz");
+        assertThat(FileStorageService.contentAddressedName(digest, "x.jpg/../../y")).isEqualTo(base);
+        assertThat(FileStorageService.contentAddressedName(digest, "x.j%2fpg")).isEqualTo(base);
+        assertThat(FileStorageService.contentAddressedName(digest, "photo.heicsequence")).isEqualTo(base);
+        assertThat(FileStorageService.contentAddressedName(digest, "photo.")).isEqualTo(base);
+        assertThat(FileStorageService.contentAddressedName(digest, null)).isEqualTo(base);
+    }
+
+    @Test
+    void oversizedContentIsRejectedWithoutLeavingFiles() throws Exception {
+        byte[] content = new byte[5 * 1024 * 1024];
+
+        assertThatThrownBy(() -> fileStorageService.store(new ByteArrayInputStream(content), "large.jpg"))
+                .isInstanceOf(UploadTooLargeException.class);
+        assertThat(listFiles()).isEmpty();
+        assertThat(meterRegistry.counter("images.upload.rejected").count()).isEqualTo(1);
+    }
+
+    @Test
+    void otherInvalidArgumentsAreNotCountedAsOversizedUploads() {
+        FileStorageService failingStore = storageService(new LocalImageStore(storageDirectory.toString()) {
+            @Override
+            public void putIfAbsent(String key, Path file) {
+                throw new IllegalArgumentException("Invalid storage key: " + key);
+            }
+        });
+
+        assertThatThrownBy(() -> failingStore.store(new ByteArrayInputStream("photo".getBytes()), "house.jpg"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(meterRegistry.find("images.upload.rejected").counter()).isNull();
+    }
+
+    private FileStorageService storageService(LocalImageStore imageStore) {
+        FileStorageService service = new FileStorageService(imageStore, meterRegistry);
+        ReflectionTestUtils.setField(service, "maxUploadSize", DataSize.ofMegabytes(4));
+        return service;
+    }
+
+    private List<String> listFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(storageDirectory)) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> storageDirectory.relativize(file).toString())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
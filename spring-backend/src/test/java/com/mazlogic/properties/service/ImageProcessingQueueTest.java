@@ -0,0 +1,235 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.TestData;
+import com.mazlogic.properties.model.ImageStatus;
+import com.mazlogic.properties.model.PropertyImage;
+import com.mazlogic.properties.model.dto.PropertyImageDTO;
+import com.mazlogic.properties.repository.PropertyImageRepository;
+import com.mazlogic.properties.repository.PropertyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestData.class)
+class ImageProcessingQueueTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+    // application.storage.delete-grace-period in the test configuration
+    private static final long GRACE_PERIOD_MILLIS = 500;
+
+    @Autowired
+    private PropertyImageService propertyImageService;
+
+    @Autowired
+    private ImageProcessingQueue imageProcessingQueue;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyImageRepository propertyImageRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Value("${application.storage.image-directory}")
+    private String imageDirectory;
+
+    private Long propertyId;
+
+    @BeforeEach
+    void seed() {
+        propertyId = testData.createProperty(TestData.property("Property with images",
+                testData.createAgent("Image Agent", "images@mazlogic.com"))).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void uploadReturnsPendingAndVariantsAppearInTheBackground() throws Exception {
+        PropertyImageDTO uploaded = upload(jpeg(2000, 1000), "house.jpg");
+
+        assertThat(uploaded.getStatus()).isEqualTo(ImageStatus.PENDING);
+        assertThat(uploaded.getCardUrl()).isEqualTo(uploaded.getImageUrl());
+
+        PropertyImage processed = awaitProcessed(uploaded.getId());
+        assertThat(processed.getStatus()).isEqualTo(ImageStatus.READY);
+        assertThat(processed.getWidth()).isEqualTo(2000);
+        assertThat(processed.getHeight()).isEqualTo(1000);
+        assertThat(processed.getThumbnailFileName()).endsWith("-thumb.jpg");
+        assertThat(processed.getCardFileName()).endsWith("-card.jpg");
+        assertThat(processed.getFullFileName()).endsWith("-full.jpg");
+    }
+
+    @Test
+    void identicalUploadsShareFilesUntilTheLastReferenceIsDeleted() throws Exception {
+        byte[] content = jpeg(1000, 800);
+        PropertyImageDTO first = upload(content, "first.jpg");
+        PropertyImageDTO second = upload(content, "second.jpg");
+
+        PropertyImage firstImage = awaitProcessed(first.getId());
+        PropertyImage secondImage = awaitProcessed(second.getId());
+        assertThat(secondImage.getFileName()).isEqualTo(firstImage.getFileName());
+        assertThat(secondImage.getCardFileName()).isEqualTo(firstImage.getCardFileName());
+
+        propertyImageService.deleteImage(first.getId());
+        Thread.sleep(GRACE_PERIOD_MILLIS * 2);
+        assertThat(storedFile(firstImage.getFileName())).exists();
+        assertThat(storedFile(firstImage.getCardFileName())).exists();
+
+        propertyImageService.deleteImage(second.getId());
+        awaitDeleted(storedFile(firstImage.getFileName()));
+        assertThat(storedFile(firstImage.getFileName())).doesNotExist();
+        assertThat(storedFile(firstImage.getCardFileName())).doesNotExist();
+    }
+
+    @Test
+    void contentReusedJustBeforeItsLastReferenceIsDeletedIsKept() throws Exception {
+        byte[] content = jpeg(600, 400);
+        PropertyImage first = awaitProcessed(upload(content, "first.jpg").getId());
+
+        // A second upload of the same content stores it (finding it already there) before the
+        // first image is deleted, and records its own image only after that deletion committed
+        StoredFile stored = fileStorageService.store(new ByteArrayInputStream(content), "second.jpg");
+        propertyImageService.deleteImage(first.getId());
+        PropertyImageDTO second = propertyImageService.addStoredImage(
+                propertyId, stored, "second.jpg", "image/jpeg", "Front", 0);
+
+        assertThat(stored.getFileName()).isEqualTo(first.getFileName());
+        Thread.sleep(GRACE_PERIOD_MILLIS * 2);
+        assertThat(storedFile(first.getFileName())).exists();
+        assertThat(awaitProcessed(second.getId()).getStatus()).isEqualTo(ImageStatus.READY);
+    }
+
+    @Test
+    void imagesRejectedByAFullQueueStayPendingUntilTheSweep() throws Exception {
+        Long imageId = savePendingImage("swept.jpg", jpeg(400, 300));
+        AtomicBoolean full = new AtomicBoolean(true);
+        ImageProcessingQueue queue = queue(task -> {
+            if (full.get()) {
+                throw new TaskRejectedException("Queue full");
+            }
+            task.run();
+        });
+
+        assertThat(queue.submit(imageId)).isFalse();
+        assertThat(propertyImageRepository.findById(imageId).orElseThrow().getStatus()).isEqualTo(ImageStatus.PENDING);
+
+        full.set(false);
+        queue.sweepPending();
+
+        assertThat(propertyImageRepository.findById(imageId).orElseThrow().getStatus()).isEqualTo(ImageStatus.READY);
+    }
+
+    @Test
+    void imagesAlreadyQueuedAreNotQueuedAgain() throws Exception {
+        Long imageId = savePendingImage("queued.jpg", jpeg(400, 300));
+        List<Runnable> queued = new ArrayList<>();
+        ImageProcessingQueue queue = queue(queued::add);
+
+        queue.submit(imageId);
+        queue.sweepPending();
+        assertThat(queued).hasSize(1);
+
+        queued.get(0).run();
+        assertThat(propertyImageRepository.findById(imageId).orElseThrow().getStatus()).isEqualTo(ImageStatus.READY);
+        queue.submit(imageId);
+        assertThat(queued).hasSize(2);
+    }
+
+    @Test
+    void pendingImagesAreRecoveredAndUndecodableOnesFail() throws Exception {
+        Long readable = savePendingImage("recovered.jpg", jpeg(400, 300));
+        Long unreadable = savePendingImage("broken.jpg", new byte[] {1, 2, 3});
+
+        imageProcessingQueue.recoverPending();
+
+        PropertyImage recovered = awaitProcessed(readable);
+        assertThat(recovered.getStatus()).isEqualTo(ImageStatus.READY);
+        assertThat(recovered.getThumbnailFileName()).isNotNull();
+        assertThat(recovered.getCardFileName()).isNull();
+        assertThat(awaitProcessed(unreadable).getStatus()).isEqualTo(ImageStatus.FAILED);
+    }
+
+    private PropertyImageDTO upload(byte[] content, String fileName) {
+        MockMultipartFile file = new MockMultipartFile("file", fileName, "image/jpeg", content);
+        StoredFile stored = fileStorageService.storeFile(file);
+        return propertyImageService.addStoredImage(propertyId, stored, file.getOriginalFilename(),
+                file.getContentType(), "Front", 0);
+    }
+
+    // A queue of its own on the given executor, for the sweep and submission tests
+    private ImageProcessingQueue queue(TaskExecutor executor) {
+        return new ImageProcessingQueue(propertyImageRepository, propertyImageService, imageProcessingService, executor);
+    }
+
+    private Path storedFile(String fileName) {
+        return Paths.get(imageDirectory).resolve(fileName);
+    }
+
+    private Long savePendingImage(String fileName, byte[] content) {
+        fileStorageService.storeBytes(fileName, content);
+        PropertyImage image = new PropertyImage();
+        image.setFileName(fileName);
+        image.setImageUrl("http://localhost:8081/images/" + fileName);
+        image.setContentType("image/jpeg");
+        image.setDisplayOrder(0);
+        image.setStatus(ImageStatus.PENDING);
+        image.setProperty(propertyRepository.getReferenceById(propertyId));
+        return propertyImageRepository.save(image).getId();
+    }
+
+    private PropertyImage awaitProcessed(Long imageId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        PropertyImage image = propertyImageRepository.findById(imageId).orElseThrow();
+        while (image.getStatus() == ImageStatus.PENDING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            image = propertyImageRepository.findById(imageId).orElseThrow();
+        }
+        return image;
+    }
+
+    private static void awaitDeleted(Path file) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (Files.exists(file) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", output);
+        return output.toByteArray();
+    }
+}
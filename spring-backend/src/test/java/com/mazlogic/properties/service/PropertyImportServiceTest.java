@@ -0,0 +1,144 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.TestData;
+import com.mazlogic.properties.metrics.QueryCountInspector;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.dto.ImportReportDTO;
+import com.mazlogic.properties.model.dto.ImportRowResultDTO;
+import com.mazlogic.properties.repository.PropertyFilter;
+import com.mazlogic.properties.repository.PropertyRepository;
+import com.mazlogic.properties.repository.PropertySort;
+import com.mazlogic.properties.search.PropertySearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "application.import.batch-size=2")
+@Import(TestData.class)
+class PropertyImportServiceTest {
+
+    @Autowired
+    private PropertyImportService propertyImportService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private PropertySearchIndex propertySearchIndex;
+
+    private Long agentId;
+
+    @BeforeEach
+    void seed() {
+        agentId = testData.createAgent("Import Agent", "import@mazlogic.com").getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void importsNdjsonAcrossBatchesAndReportsFailedRows() throws IOException {
+        String ndjson = String.join("\n",
+                row("Lakefront Home", 450000, "sale", "\"agentId\":" + agentId),
+                row("City Apartment", 2500, "rent", "\"agentEmail\":\"import@mazlogic.com\""),
+                "{\"title\":\"No price\",\"description\":\"d\",\"type\":\"sale\",\"location\":\"l\",\"agentId\":" + agentId + "}",
+                "",
+                row("Unknown agent", 1000, "sale", "\"agentEmail\":\"nobody@mazlogic.com\""),
+                "{not json",
+                row("Family Home", 375000, "sale", "\"agentId\":" + agentId));
+
+        ImportReportDTO report = propertyImportService.importProperties(
+                stream(ndjson), PropertyImportService.NDJSON);
+
+        assertThat(report.getTotal()).isEqualTo(6);
+        assertThat(report.getCreated()).isEqualTo(3);
+        assertThat(report.getFailed()).isEqualTo(3);
+        List<ImportRowResultDTO> rows = report.getRows();
+        assertThat(rows).extracting(ImportRowResultDTO::getLine).containsExactly(1L, 2L, 3L, 5L, 6L, 7L);
+        assertThat(rows.get(2).getError()).isEqualTo("Price is required");
+        assertThat(rows.get(3).getError()).contains("nobody@mazlogic.com");
+        assertThat(rows.get(4).getError()).startsWith("Invalid JSON");
+
+        List<Property> saved = propertyRepository.findAll();
+        assertThat(saved).extracting(Property::getTitle)
+                .containsExactlyInAnyOrder("Lakefront Home", "City Apartment", "Family Home");
+        assertThat(rows.get(0).getPropertyId()).isNotNull();
+
+        PropertyFilter filter = new PropertyFilter(null, null, null, null, null, "apartment");
+        assertThat(propertySearchIndex.search(filter, PropertySort.RELEVANCE, null, 10))
+                .extracting(hit -> hit.getPropertyId())
+                .containsExactly(rows.get(1).getPropertyId());
+    }
+
+    @Test
+    void importsCsvWithHeader() throws IOException {
+        String csv = "title,description,price,type,location,agentEmail\n"
+                + "Lakefront Home,\"Views, and a dock\",450000,sale,Waterfront,import@mazlogic.com\n"
+                + "Bad price,Description,-5,sale,Somewhere,import@mazlogic.com\n";
+
+        ImportReportDTO report = propertyImportService.importProperties(
+                stream(csv), PropertyImportService.CSV);
+
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getRows()).extracting(ImportRowResultDTO::getStatus)
+                .containsExactly(ImportRowResultDTO.Status.CREATED, ImportRowResultDTO.Status.FAILED);
+        assertThat(report.getRows().get(1).getError()).isEqualTo("Price must be a positive value");
+        assertThat(propertyRepository.findAll()).singleElement()
+                .satisfies(property -> assertThat(property.getDescription()).isEqualTo("Views, and a dock"));
+    }
+
+    @Test
+    void statementsGrowWithBatchesNotRows() throws IOException {
+        // Allocates this context's id blocks and creates the feed head, which later imports reuse
+        countStatements(1);
+
+        int oneRow = countStatements(1);
+        int oneBatch = countStatements(2);
+        int threeBatches = countStatements(6);
+
+        // One agent lookup, one insert each into properties and change_records, and five
+        // statements to number the change records after the commit
+        assertThat(oneBatch).isEqualTo(8);
+        // The rows of a batch share one prepared statement per table, run as a JDBC batch
+        assertThat(oneRow).isEqualTo(oneBatch);
+        assertThat(threeBatches).isEqualTo(3 * oneBatch);
+    }
+
+    // Statements prepared on this thread while importing, including sequencing the change feed
+    private int countStatements(int rows) throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            ndjson.append(row("Batched Home " + i, 1000, "sale", "\"agentId\":" + agentId)).append('\n');
+        }
+        QueryCountInspector.start();
+        ImportReportDTO report = propertyImportService.importProperties(
+                stream(ndjson.toString()), PropertyImportService.NDJSON);
+        int statements = QueryCountInspector.stop();
+        assertThat(report.getCreated()).isEqualTo(rows);
+        return statements;
+    }
+
+    private static String row(String title, double price, String type, String agent) {
+        return "{\"title\":\"" + title + "\",\"description\":\"Imported listing\",\"price\":" + price
+                + ",\"type\":\"" + type + "\",\"location\":\"Somewhere\"," + agent + "}";
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,111 @@
+package com.mazlogic.properties.service;
+
+import com.mazlogic.properties.TestData;
+import com.mazlogic.properties.model.Agent;
+import com.mazlogic.properties.model.Property;
+import com.mazlogic.properties.model.dto.PageResponse;
+import com.mazlogic.properties.model.dto.PropertyDTO;
+import com.mazlogic.properties.repository.AgentRepository;
+import com.mazlogic.properties.repository.PropertyRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "application.pagination.max-size=1000"
+})
+@Import(TestData.class)
+class PropertyServiceQueryCountTest {
+
+    private static final int AGENT_COUNT = 10;
+    private static final int PROPERTY_COUNT = 1000;
+    private static final int IMAGES_PER_PROPERTY = 3;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<Agent> agents = new ArrayList<>();
+        for (int i = 0; i < AGENT_COUNT; i++) {
+            agents.add(TestData.agent("Agent " + i, "agent" + i + "@mazlogic.com", "(555) 000-000" + i));
+        }
+        agents = agentRepository.saveAll(agents);
+
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < PROPERTY_COUNT; i++) {
+            Property property = TestData.property("Property " + i, agents.get(i % AGENT_COUNT));
+            property.setDescription("Description " + i);
+            property.setPrice(1000.0 + i);
+            property.setType(i % 2 == 0 ? "sale" : "rent");
+            property.setLocation("Location " + i);
+            for (int j = 0; j < IMAGES_PER_PROPERTY; j++) {
+                property.addImage(TestData.image("image-" + i + "-" + j + ".jpg", IMAGES_PER_PROPERTY - j));
+            }
+            properties.add(property);
+        }
+        propertyRepository.saveAll(properties);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.deleteAll();
+    }
+
+    @Test
+    void listingStatementCountDoesNotGrowWithPageSize() {
+        long smallPageStatements = countStatements(10);
+        long largePageStatements = countStatements(PROPERTY_COUNT);
+
+        // One page query (with agents fetched) plus one batched image query
+        assertThat(smallPageStatements).isEqualTo(2);
+        assertThat(largePageStatements).isEqualTo(smallPageStatements);
+    }
+
+    @Test
+    void listingReturnsImagesInDisplayOrder() {
+        PageResponse<PropertyDTO> page = propertyService.getAllProperties(null, PROPERTY_COUNT, null);
+
+        assertThat(page.getContent()).hasSize(PROPERTY_COUNT);
+        assertThat(page.getContent()).allSatisfy(property -> {
+            assertThat(property.getAgent()).isNotNull();
+            assertThat(property.getImages()).hasSize(IMAGES_PER_PROPERTY);
+            assertThat(property.getImages().get(0).getDisplayOrder()).isEqualTo(1);
+        });
+    }
+
+    private long countStatements(int pageSize) {
+        statistics.clear();
+        PageResponse<PropertyDTO> page = propertyService.getAllProperties(null, pageSize, null);
+        assertThat(page.getContent()).hasSize(pageSize);
+        return statistics.getPrepareStatementCount();
+    }
+}
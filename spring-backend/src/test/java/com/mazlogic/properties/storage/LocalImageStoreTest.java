@@ -0,0 +1,50 @@
+package com.mazlogic.properties.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalImageStoreTest {
+
+    @TempDir
+    Path root;
+
+    private LocalImageStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new LocalImageStore(root.toString());
+        store.put("ab/cd/abcd-thumb.jpg", new byte[10]);
+        store.put("ab/cd/abcd.jpg", new byte[20]);
+        store.put("ab/ef/abef.png", new byte[30]);
+        store.put("ff/00/ff00.jpg", new byte[40]);
+        // Flat name from before content addressing
+        store.put("ab.jpg", new byte[50]);
+    }
+
+    @Test
+    void listPagesThroughKeysInOrder() throws Exception {
+        assertThat(store.list(null, 3)).containsExactly("ab.jpg", "ab/cd/abcd-thumb.jpg", "ab/cd/abcd.jpg");
+        assertThat(store.list("ab/cd/abcd.jpg", 3)).containsExactly("ab/ef/abef.png", "ff/00/ff00.jpg");
+        assertThat(store.list("ff/00/ff00.jpg", 3)).isEmpty();
+    }
+
+    @Test
+    void scanShardCountsFilesBelowThePrefix() throws Exception {
+        ShardStats stats = store.scanShard("ab/");
+
+        assertThat(stats.getFileCount()).isEqualTo(3);
+        assertThat(stats.getTotalBytes()).isEqualTo(60);
+        assertThat(store.scanShard("00/").getFileCount()).isZero();
+    }
+
+    @Test
+    void keysCannotEscapeTheRoot() {
+        assertThatThrownBy(() -> store.open("../outside.jpg")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
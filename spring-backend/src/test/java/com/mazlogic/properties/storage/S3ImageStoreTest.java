@@ -0,0 +1,213 @@
+package com.mazlogic.properties.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class S3ImageStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final InMemoryS3Client s3 = new InMemoryS3Client();
+
+    private S3ImageStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new S3ImageStore(s3, "images");
+        store.put("ab/cd/abcd-thumb.jpg", new byte[10]);
+        store.put("ab/cd/abcd.jpg", "0123456789".getBytes());
+        store.put("ab/ef/abef.png", new byte[30]);
+        store.put("ff/00/ff00.jpg", new byte[40]);
+        // Flat name from before content addressing
+        store.put("ab.jpg", new byte[50]);
+    }
+
+    @Test
+    void rangeReadsReturnTheInclusiveByteRange() throws Exception {
+        try (InputStream in = store.open("ab/cd/abcd.jpg", 2, 5)) {
+            assertThat(in.readAllBytes()).isEqualTo("2345".getBytes());
+        }
+        assertThat(s3.lastRange).isEqualTo("bytes=2-5");
+        try (InputStream in = store.open("ab/cd/abcd.jpg")) {
+            assertThat(in.readAllBytes()).isEqualTo("0123456789".getBytes());
+        }
+    }
+
+    @Test
+    void missingKeysAreReportedAsMissingFiles() {
+        assertThatThrownBy(() -> store.open("00/00/missing.jpg")).isInstanceOf(NoSuchFileException.class);
+        assertThatThrownBy(() -> store.open("00/00/missing.jpg", 0, 1)).isInstanceOf(NoSuchFileException.class);
+        assertThatThrownBy(() -> store.size("00/00/missing.jpg")).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void putIfAbsentDoesNotOverwriteExistingObjects() throws Exception {
+        Path file = Files.write(directory.resolve("upload.tmp"), "new".getBytes());
+        int puts = s3.puts;
+
+        store.putIfAbsent("ab/cd/abcd.jpg", file);
+        assertThat(s3.puts).isEqualTo(puts);
+        assertThat(store.size("ab/cd/abcd.jpg")).isEqualTo(10);
+
+        store.putIfAbsent("12/34/1234.jpg", file);
+        assertThat(s3.puts).isEqualTo(puts + 1);
+        try (InputStream in = store.open("12/34/1234.jpg")) {
+            assertThat(in.readAllBytes()).isEqualTo("new".getBytes());
+        }
+    }
+
+    @Test
+    void listPagesThroughKeysInOrder() {
+        assertThat(store.list(null, 3)).containsExactly("ab.jpg", "ab/cd/abcd-thumb.jpg", "ab/cd/abcd.jpg");
+        assertThat(store.list("ab/cd/abcd.jpg", 3)).containsExactly("ab/ef/abef.png", "ff/00/ff00.jpg");
+        assertThat(store.list("ff/00/ff00.jpg", 3)).isEmpty();
+    }
+
+    @Test
+    void scanShardCountsObjectsAcrossListingPages() {
+        s3.pageSize = 1;
+
+        ShardStats stats = store.scanShard("ab/");
+
+        assertThat(stats.getFileCount()).isEqualTo(3);
+        assertThat(stats.getTotalBytes()).isEqualTo(50);
+        assertThat(store.scanShard("00/").getFileCount()).isZero();
+    }
+
+    @Test
+    void deleteRemovesTheObject() {
+        store.delete("ab/ef/abef.png");
+
+        assertThat(s3.objects).doesNotContainKey("ab/ef/abef.png");
+        assertThatThrownBy(() -> store.size("ab/ef/abef.png")).isInstanceOf(NoSuchFileException.class);
+        // Deleting a missing key succeeds, as it does on S3
+        store.delete("ab/ef/abef.png");
+    }
+
+    /**
+     * Keeps objects of a single bucket in key order, which matches S3's UTF-8 binary order
+     * for the ASCII keys used here. Missing keys fail like S3 does: with a 404 and no error
+     * code on HEAD, and with NoSuchKey on GET.
+     */
+    private static class InMemoryS3Client implements S3Client {
+
+        final NavigableMap<String, byte[]> objects = new TreeMap<>();
+        int puts;
+        String lastRange;
+        // Largest page S3 returns, whatever maxKeys asks for
+        int pageSize = 1000;
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            try (InputStream in = body.contentStreamProvider().newStream()) {
+                objects.put(request.key(), in.readAllBytes());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            puts++;
+            return PutObjectResponse.builder().build();
+        }
+
+        @Override
+        public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+            byte[] content = objects.get(request.key());
+            if (content == null) {
+                throw NoSuchKeyException.builder().statusCode(404).message("NoSuchKey").build();
+            }
+            lastRange = request.range();
+            if (request.range() != null) {
+                String[] bounds = request.range().substring("bytes=".length()).split("-");
+                int end = Math.min(Integer.parseInt(bounds[1]), content.length - 1);
+                content = Arrays.copyOfRange(content, Integer.parseInt(bounds[0]), end + 1);
+            }
+            return new ResponseInputStream<>(
+                    GetObjectResponse.builder().contentLength((long) content.length).build(),
+                    AbortableInputStream.create(new ByteArrayInputStream(content)));
+        }
+
+        @Override
+        public HeadObjectResponse headObject(HeadObjectRequest request) {
+            byte[] content = objects.get(request.key());
+            if (content == null) {
+                throw (S3Exception) S3Exception.builder().statusCode(404).build();
+            }
+            return HeadObjectResponse.builder().contentLength((long) content.length).build();
+        }
+
+        @Override
+        public DeleteObjectResponse deleteObject(DeleteObjectRequest request) {
+            objects.remove(request.key());
+            return DeleteObjectResponse.builder().build();
+        }
+
+        @Override
+        public ListObjectsV2Response listObjectsV2(ListObjectsV2Request request) {
+            String after = request.continuationToken() != null ? request.continuationToken() : request.startAfter();
+            String prefix = request.prefix() != null ? request.prefix() : "";
+            int limit = Math.min(request.maxKeys() != null ? request.maxKeys() : 1000, pageSize);
+            NavigableMap<String, byte[]> candidates = after != null ? objects.tailMap(after, false) : objects;
+
+            List<S3Object> contents = new ArrayList<>();
+            boolean truncated = false;
+            for (var entry : candidates.entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    continue;
+                }
+                if (contents.size() == limit) {
+                    truncated = true;
+                    break;
+                }
+                contents.add(S3Object.builder().key(entry.getKey()).size((long) entry.getValue().length).build());
+            }
+            return ListObjectsV2Response.builder()
+                    .contents(contents)
+                    .isTruncated(truncated)
+                    .nextContinuationToken(truncated ? contents.get(contents.size() - 1).key() : null)
+                    .build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}